@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.fml;
+
+import static net.minecraftforge.fml.Logging.LOADING;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraftforge.fml.loading.FMLPaths;
+
+/**
+ * Orders the dispatch of a lifecycle event to mods by their critical path, using how long each mod took in the previous launch.
+ * <p>
+ * A mod's priority is its own time plus the longest chain of mods that depend on it, so long running mods that others wait on
+ * are started first. Every task submitted for an event goes through a priority queue, so whichever thread runs next, sync or
+ * parallel, picks the ready mod with the longest remaining chain. Without any recorded timings mods are dispatched in
+ * {@link ModList} order, exactly as before.
+ * <p>
+ * Opt-in by setting the {@code fml.criticalPathScheduler} system property to {@code true}. While disabled mods are always
+ * dispatched in {@link ModList} order, and no timings are recorded or written to the cache directory.
+ */
+final class CriticalPathScheduler {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final boolean ENABLED = Boolean.getBoolean("fml.criticalPathScheduler");
+    private static final String FILE = "mod-timings.txt";
+
+    private static final Map<String, Long> RECORDED = new ConcurrentHashMap<>();
+    private static @Nullable Map<String, Long> previous;
+
+    private CriticalPathScheduler() {}
+
+    static void record(String stage, ModContainer mod, long nanos) {
+        if (!ENABLED)
+            return;
+        RECORDED.put(key(stage, mod), nanos);
+    }
+
+    /**
+     * Saves this launch's timings for the next one, called once loading has finished.
+     */
+    static void save() {
+        if (!ENABLED)
+            return;
+        var path = getPath();
+        if (path == null || RECORDED.isEmpty())
+            return;
+
+        var lines = new ArrayList<String>(RECORDED.size());
+        for (var entry : new TreeMap<>(RECORDED).entrySet())
+            lines.add(entry.getKey() + '\t' + entry.getValue());
+
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, lines);
+        } catch (IOException e) {
+            LOGGER.warn(LOADING, "Failed to save mod loading timings to {}", path, e);
+        }
+    }
+
+    /**
+     * Returns the mods in the order they should be dispatched for the specified stage, along with the executor each mod's task
+     * should be submitted to. Mods always come after their dependencies.
+     */
+    static List<Scheduled> schedule(String stage, List<ModContainer> mods, Executor executor) {
+        var timings = ENABLED ? getPrevious() : Map.<String, Long>of();
+        var ret = new ArrayList<Scheduled>(mods.size());
+        if (timings.isEmpty()) {
+            for (var mod : mods)
+                ret.add(new Scheduled(mod, executor));
+            return ret;
+        }
+
+        var dependents = new IdentityHashMap<ModContainer, List<ModContainer>>();
+        var waitingOn = new IdentityHashMap<ModContainer, Integer>();
+        for (var mod : mods) {
+            waitingOn.put(mod, mod.dependencies.size());
+            for (var dependency : mod.dependencies)
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(mod);
+        }
+
+        // Dependencies are always earlier in the mod list, so walking it backwards sees every dependent before its dependencies
+        var ranks = new IdentityHashMap<ModContainer, Long>();
+        for (int x = mods.size() - 1; x >= 0; x--) {
+            var mod = mods.get(x);
+            long longest = 0;
+            for (var dependent : dependents.getOrDefault(mod, Collections.emptyList()))
+                longest = Math.max(longest, ranks.getOrDefault(dependent, 0L));
+            ranks.put(mod, timings.getOrDefault(key(stage, mod), 0L) + longest);
+        }
+
+        var index = new IdentityHashMap<ModContainer, Integer>();
+        for (int x = 0; x < mods.size(); x++)
+            index.put(mods.get(x), x);
+
+        // Topological order preferring the longest chains, ties keep the mod list order
+        var ready = new PriorityQueue<ModContainer>((a, b) -> {
+            int cmp = Long.compare(ranks.get(b), ranks.get(a));
+            return cmp != 0 ? cmp : Integer.compare(index.get(a), index.get(b));
+        });
+        for (var mod : mods) {
+            if (mod.dependencies.isEmpty())
+                ready.add(mod);
+        }
+
+        var queue = new PriorityExecutor(executor);
+        while (!ready.isEmpty()) {
+            var mod = ready.poll();
+            long rank = ranks.get(mod);
+            ret.add(new Scheduled(mod, command -> queue.execute(rank, command)));
+            for (var dependent : dependents.getOrDefault(mod, Collections.emptyList())) {
+                int remaining = waitingOn.merge(dependent, -1, Integer::sum);
+                if (remaining == 0)
+                    ready.add(dependent);
+            }
+        }
+
+        // Should never happen as the mod list is already in dependency order, but don't drop anyone if it does
+        if (ret.size() != mods.size()) {
+            LOGGER.warn(LOADING, "Could not order mods by critical path for {}, falling back to mod list order", stage);
+            ret.clear();
+            for (var mod : mods)
+                ret.add(new Scheduled(mod, executor));
+        }
+        return ret;
+    }
+
+    private static String key(String stage, ModContainer mod) {
+        return stage + '\t' + mod.getModId();
+    }
+
+    private static synchronized Map<String, Long> getPrevious() {
+        if (previous != null)
+            return previous;
+
+        previous = new HashMap<>();
+        var path = getPath();
+        if (path == null || !Files.isRegularFile(path))
+            return previous;
+
+        try {
+            for (var line : Files.readAllLines(path)) {
+                int split = line.lastIndexOf('\t');
+                if (split > 0)
+                    previous.put(line.substring(0, split), Long.parseLong(line.substring(split + 1)));
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warn(LOADING, "Failed to read mod loading timings from {}, ignoring them", path, e);
+            previous.clear();
+        }
+        return previous;
+    }
+
+    private static @Nullable Path getPath() {
+        var dir = FMLPaths.CACHEDIR.get();
+        return dir == null ? null : dir.resolve(FILE);
+    }
+
+    record Scheduled(ModContainer mod, Executor executor) {}
+
+    /**
+     * Runs the highest priority task waiting whenever the delegate executor gets around to one of our tasks.
+     */
+    private static final class PriorityExecutor {
+        private final Executor delegate;
+        private final PriorityBlockingQueue<Task> tasks = new PriorityBlockingQueue<>();
+        private final AtomicLong sequence = new AtomicLong();
+
+        private PriorityExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        private void execute(long priority, Runnable command) {
+            this.tasks.add(new Task(priority, this.sequence.getAndIncrement(), command));
+            this.delegate.execute(this::runNext);
+        }
+
+        private void runNext() {
+            var task = this.tasks.poll();
+            if (task != null)
+                task.command().run();
+        }
+
+        private record Task(long priority, long sequence, Runnable command) implements Comparable<Task> {
+            @Override
+            public int compareTo(Task other) {
+                int ret = Long.compare(other.priority, this.priority);
+                return ret != 0 ? ret : Long.compare(this.sequence, other.sequence);
+            }
+        }
+    }
+}
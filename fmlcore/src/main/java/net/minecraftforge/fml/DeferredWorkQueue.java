@@ -58,7 +58,7 @@ public class DeferredWorkQueue
         RuntimeException aggregate = new RuntimeException();
         Stopwatch timer = Stopwatch.createStarted();
         for (TaskInfo t : tasks) {
-            makeRunnable(t, Runnable::run, aggregate);
+            makeRunnable(t, Runnable::run, aggregate, modLoadingStage);
         }
         timer.stop();
         if (aggregate.getSuppressed().length > 0) {
@@ -74,11 +74,11 @@ public class DeferredWorkQueue
         }
     }
 
-    private static void makeRunnable(TaskInfo ti, Executor executor, RuntimeException aggregate) {
+    private static void makeRunnable(TaskInfo ti, Executor executor, RuntimeException aggregate, ModLoadingStage stage) {
         executor.execute(() -> {
             Stopwatch timer = Stopwatch.createStarted();
             ModLoadingContext.get().setActiveContainer(ti.owner);
-            try {
+            try (var scope = LoadingTrace.begin("DeferredWorkQueue " + stage, ti.owner.getModId())) {
                 ti.future.exceptionally(t -> captureException(ti.owner.getModId(), aggregate, t));
                 ti.task.run();
             } finally {
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.fml;
+
+import static net.minecraftforge.fml.Logging.LOADING;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.gson.stream.JsonWriter;
+
+import net.minecraftforge.fml.loading.FMLPaths;
+
+/**
+ * Opt-in recorder of where mod loading spends its time.
+ * <p>
+ * Enabled by setting the {@code fml.loadingTrace} system property, either to the file the trace should be written to, or to
+ * {@code true} to use {@code logs/loading-trace.json} in the game directory. Every mod's part of every lifecycle event, deferred
+ * work queue task and registry event is recorded with the thread it ran on. Once loading finishes the spans are written as
+ * Chrome trace event JSON, which can be opened in {@code about://tracing} or Perfetto, and the critical path of each
+ * lifecycle event is logged.
+ */
+@ApiStatus.Internal
+public final class LoadingTrace {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String PROPERTY = "fml.loadingTrace";
+    private static final boolean ENABLED = System.getProperty(PROPERTY) != null;
+    private static final long ORIGIN = System.nanoTime();
+    private static final Scope NOOP = () -> {};
+
+    private static final ConcurrentLinkedQueue<Span> SPANS = new ConcurrentLinkedQueue<>();
+
+    private LoadingTrace() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Starts a span that ends when the returned scope is closed, on the same thread.
+     */
+    public static Scope begin(String category, String name) {
+        if (!ENABLED)
+            return NOOP;
+
+        long start = System.nanoTime();
+        return () -> SPANS.add(new Span(category, name, Thread.currentThread(), start, start, System.nanoTime(), null));
+    }
+
+    static long now() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records one mod's part of a lifecycle event.
+     *
+     * @param queued when the task was added to the dispatch graph, anything between this and {@code start} was spent
+     *               waiting for dependencies or a free thread
+     */
+    static void recordModTask(String category, ModContainer mod, long queued, long start) {
+        if (!ENABLED)
+            return;
+
+        var dependencies = new ArrayList<String>(mod.dependencies.size());
+        for (var dependency : mod.dependencies)
+            dependencies.add(dependency.getModId());
+        SPANS.add(new Span(category, mod.getModId(), Thread.currentThread(), queued, start, System.nanoTime(), dependencies));
+    }
+
+    /**
+     * Writes the trace and logs the critical path summary, called once loading has finished.
+     */
+    static void finish() {
+        if (!ENABLED)
+            return;
+
+        var spans = new ArrayList<>(SPANS);
+        SPANS.clear();
+        spans.sort(Comparator.comparingLong(Span::end));
+
+        var path = getOutput();
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (var writer = new JsonWriter(Files.newBufferedWriter(path))) {
+                write(writer, spans);
+            }
+            LOGGER.info(LOADING, "Wrote mod loading trace with {} spans to {}", spans.size(), path);
+        } catch (IOException e) {
+            LOGGER.error(LOADING, "Failed to write mod loading trace to {}", path, e);
+        }
+
+        logCriticalPaths(spans);
+    }
+
+    private static Path getOutput() {
+        var value = System.getProperty(PROPERTY);
+        if (value.isEmpty() || "true".equalsIgnoreCase(value))
+            return FMLPaths.GAMEDIR.get().resolve("logs").resolve("loading-trace.json");
+        return Path.of(value);
+    }
+
+    private static void write(JsonWriter writer, List<Span> spans) throws IOException {
+        writer.beginObject();
+        writer.name("displayTimeUnit").value("ms");
+        writer.name("traceEvents").beginArray();
+
+        var stages = byStage(spans);
+        var threads = new LinkedHashMap<Long, String>();
+        for (var span : spans) {
+            threads.putIfAbsent(span.threadId(), span.threadName());
+            var dependencyEnd = span.dependencies() == null ? null : dependencyEnd(stages.get(span.category()), span);
+
+            writer.beginObject();
+            writer.name("name").value(span.name());
+            writer.name("cat").value(span.category());
+            writer.name("ph").value("X");
+            writer.name("ts").value(micros(span.start() - ORIGIN));
+            writer.name("dur").value(micros(span.end() - span.start()));
+            writer.name("pid").value(1);
+            writer.name("tid").value(span.threadId());
+            if (span.dependencies() != null) {
+                long ready = dependencyEnd == null ? span.queued() : Math.max(dependencyEnd, span.queued());
+                writer.name("args").beginObject();
+                writer.name("dependencies").beginArray();
+                for (var dependency : span.dependencies())
+                    writer.value(dependency);
+                writer.endArray();
+                writer.name("waiting_on_dependencies_us").value(micros(ready - span.queued()));
+                writer.name("waiting_for_thread_us").value(micros(span.start() - ready));
+                writer.endObject();
+            }
+            writer.endObject();
+        }
+
+        for (var thread : threads.entrySet()) {
+            writer.beginObject();
+            writer.name("name").value("thread_name");
+            writer.name("ph").value("M");
+            writer.name("pid").value(1);
+            writer.name("tid").value(thread.getKey());
+            writer.name("args").beginObject().name("name").value(thread.getValue()).endObject();
+            writer.endObject();
+        }
+
+        writer.endArray();
+        writer.endObject();
+    }
+
+    private static @Nullable Long dependencyEnd(Map<String, Span> stage, Span span) {
+        Long ret = null;
+        for (var dependency : span.dependencies()) {
+            var dep = stage.get(dependency);
+            if (dep != null && (ret == null || dep.end() > ret))
+                ret = dep.end();
+        }
+        return ret;
+    }
+
+    /**
+     * Groups the mod task spans by lifecycle event, and then by mod id.
+     */
+    private static Map<String, Map<String, Span>> byStage(List<Span> spans) {
+        var ret = new LinkedHashMap<String, Map<String, Span>>();
+        for (var span : spans) {
+            if (span.dependencies() != null)
+                ret.computeIfAbsent(span.category(), k -> new LinkedHashMap<>()).put(span.name(), span);
+        }
+        return ret;
+    }
+
+    /**
+     * For every lifecycle event, finds the chain of dependent mods whose combined run time bounds how fast the event could be
+     * dispatched, no matter how many threads were available.
+     */
+    private static void logCriticalPaths(List<Span> spans) {
+        for (var stage : byStage(spans).entrySet()) {
+            var mods = stage.getValue();
+            var length = new HashMap<String, Long>();
+            var previous = new HashMap<String, String>();
+            String last = null;
+            long first = Long.MAX_VALUE, end = 0;
+
+            // Spans are sorted by end time, and a mod always finishes after its dependencies
+            for (var span : mods.values()) {
+                long best = 0;
+                for (var dependency : span.dependencies()) {
+                    var dep = length.get(dependency);
+                    if (dep != null && dep > best) {
+                        best = dep;
+                        previous.put(span.name(), dependency);
+                    }
+                }
+                long total = best + span.end() - span.start();
+                length.put(span.name(), total);
+                if (last == null || total > length.get(last))
+                    last = span.name();
+                first = Math.min(first, span.queued());
+                end = Math.max(end, span.end());
+            }
+
+            var chain = new ArrayList<String>();
+            for (var mod = last; mod != null; mod = previous.get(mod))
+                chain.add(0, mod);
+
+            LOGGER.info(LOADING, "{} took {}ms for {} mods, critical path {}ms: {}", stage.getKey(),
+                TimeUnit.NANOSECONDS.toMillis(end - first), mods.size(), TimeUnit.NANOSECONDS.toMillis(length.get(last)), String.join(" -> ", chain));
+        }
+
+        var slowest = spans.stream()
+            .sorted(Comparator.comparingLong((Span span) -> span.end() - span.start()).reversed())
+            .limit(10)
+            .toList();
+        for (var span : slowest)
+            LOGGER.info(LOADING, "Slow loading task: {} {} took {}ms on {}", span.category(), span.name(), TimeUnit.NANOSECONDS.toMillis(span.end() - span.start()), span.threadName());
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * An open span, closing it records the span.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Span(String category, String name, String threadName, long threadId, long queued, long start, long end, @Nullable List<String> dependencies) {
+        private Span(String category, String name, Thread thread, long queued, long start, long end, @Nullable List<String> dependencies) {
+            this(category, name, thread.getName(), thread.threadId(), queued, start, end, dependencies);
+        }
+    }
+}
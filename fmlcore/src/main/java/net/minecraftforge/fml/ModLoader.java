@@ -10,6 +10,7 @@ import net.minecraftforge.fml.event.IModBusEvent;
 import net.minecraftforge.fml.loading.FMLEnvironment;
 import net.minecraftforge.fml.loading.FMLLoader;
 import net.minecraftforge.fml.loading.ImmediateWindowHandler;
+import net.minecraftforge.fml.loading.LaunchPluginCache;
 import net.minecraftforge.fml.loading.LoadingModList;
 import net.minecraftforge.fml.loading.moddiscovery.InvalidModIdentifier;
 import net.minecraftforge.fml.loading.moddiscovery.ModFileInfo;
@@ -234,6 +235,9 @@ public class ModLoader {
         }
         statusConsumer.accept(String.format("Mod loading complete - %d mods loaded", this.modList.size()));
         progress.complete();
+        CriticalPathScheduler.save();
+        LaunchPluginCache.save();
+        LoadingTrace.finish();
     }
 
     private void dispatchAndHandleError(IModLoadingState state, ModWorkManager.DrivenExecutor syncExecutor, Executor parallelExecutor, final Runnable ticker, final ProgressMeter progressBar) {
@@ -244,11 +248,13 @@ public class ModLoader {
         progressBar.label(progressBar.name() + " working");
         syncExecutor.drive(ticker);
 
-        var inlineRunnable = state.inlineRunnable().orElse(null);
-        if (inlineRunnable != null) handleInlineTransition(inlineRunnable, state, syncExecutor, ticker);
+        try (var scope = LoadingTrace.begin("state", state.name())) {
+            var inlineRunnable = state.inlineRunnable().orElse(null);
+            if (inlineRunnable != null) handleInlineTransition(inlineRunnable, state, syncExecutor, ticker);
 
-        var transition = state.buildTransition(syncExecutor, parallelExecutor, progressBar).orElse(null);
-        if (transition != null) waitForTransition(state, syncExecutor, ticker, transition);
+            var transition = state.buildTransition(syncExecutor, parallelExecutor, progressBar).orElse(null);
+            if (transition != null) waitForTransition(state, syncExecutor, ticker, transition);
+        }
 
         completedStates.add(state);
     }
@@ -399,10 +405,13 @@ public class ModLoader {
             LOGGER.error("Cowardly refusing to send event {} to a broken mod state", e.getClass().getName());
             return;
         }
+        var category = LoadingTrace.isEnabled() ? e.getClass().getSimpleName() : null;
         for (var mod : ModList.get().getLoadedMods()) {
-            pre.accept(mod, e);
-            mod.acceptEvent(e);
-            post.accept(mod, e);
+            try (var scope = LoadingTrace.begin(category, mod.getModId())) {
+                pre.accept(mod, e);
+                mod.acceptEvent(e);
+                post.accept(mod, e);
+            }
         }
     }
 
@@ -7,7 +7,7 @@ package net.minecraftforge.fml;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -85,7 +85,8 @@ class ModStateTransitionHelper {
         final List<CompletableFuture<Void>> completableFutures,
         final ProgressMeter progressBar,
         final EventGenerator<T> eventGenerator,
-        final BiFunction<ModLoadingStage, Throwable, ModLoadingStage> nextState
+        final BiFunction<ModLoadingStage, Throwable, ModLoadingStage> nextState,
+        final String stage
      ) {
 
         @SuppressWarnings("removal")
@@ -93,8 +94,10 @@ class ModStateTransitionHelper {
         if (preDispatchHook != null)
             completableFutures.add(preDispatchHook);
 
-        var modFutures = new LinkedHashMap<String, CompletableFuture<Void>>();
-        for (var mod : ModList.get().getLoadedMods()) {
+        var mods = ModList.get().getLoadedMods();
+        var modFutures = new HashMap<String, CompletableFuture<Void>>();
+        for (var scheduled : CriticalPathScheduler.schedule(stage, mods, executor)) {
+            var mod = scheduled.mod();
 
             CompletableFuture<Void> parent = null;
             if (mod.dependencies.isEmpty()) {
@@ -111,15 +114,20 @@ class ModStateTransitionHelper {
                 parent = CompletableFuture.allOf(deps);
             }
 
+            long queued = LoadingTrace.now();
             @SuppressWarnings("removal")
             var dispatch = parent
                 .thenRunAsync(() -> {
+                    long start = System.nanoTime();
                     ModLoadingContext.get().setActiveContainer(mod);
                     var handler = mod.activityMap.get(mod.modLoadingStage);
                     if (handler != null)
                         handler.run();
-                    mod.acceptEvent(eventGenerator.apply(mod));
-                }, executor)
+                    var event = eventGenerator.apply(mod);
+                    mod.acceptEvent(event);
+                    CriticalPathScheduler.record(stage, mod, System.nanoTime() - start);
+                    LoadingTrace.recordModTask(event.getClass().getSimpleName(), mod, queued, start);
+                }, scheduled.executor())
                 .whenComplete((mc, exception) -> {
                     mod.modLoadingStage = nextState.apply(mod.modLoadingStage, exception);
                     progressBar.increment();
@@ -129,7 +137,12 @@ class ModStateTransitionHelper {
             modFutures.put(mod.getModId(), dispatch);
         }
 
-        var dispatch = gather(modFutures.values()).thenComposeAsync(ModStateTransitionHelper::completableFutureFromExceptionList, executor);
+        // Gather in mod list order, so errors are reported in the same order no matter how the mods were scheduled
+        var ordered = new ArrayList<CompletableFuture<Void>>(mods.size());
+        for (var mod : mods)
+            ordered.add(modFutures.get(mod.getModId()));
+
+        var dispatch = gather(ordered).thenComposeAsync(ModStateTransitionHelper::completableFutureFromExceptionList, executor);
         completableFutures.add(dispatch);
 
         @SuppressWarnings("removal")
@@ -164,7 +177,7 @@ class ModStateTransitionHelper {
             BiFunction<ModLoadingStage, Throwable, ModLoadingStage> state = x == events.size() - 1
                 ? transition.nextModLoadingStage()
                 : ModLoadingStage::currentState;
-            addCompletableFutureTaskForModDispatch(transition, executor, futures, progressBar, gen, state);
+            addCompletableFutureTaskForModDispatch(transition, executor, futures, progressBar, gen, state, name + '/' + x);
         }
 
         final CompletableFuture<Void> preSyncTaskCF = preSyncTask.apply(syncExecutor);
@@ -17,6 +17,8 @@ import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodNode;
 
 import cpw.mods.modlauncher.serviceapi.ILaunchPluginService;
+import net.minecraftforge.fml.loading.ClassScanIndex;
+import net.minecraftforge.fml.loading.LaunchPluginCache;
 
 /**
  * Implements getType() in CapabilityToken subclasses.
@@ -56,7 +58,14 @@ public class CapabilityTokenSubclass implements ILaunchPluginService {
         String internalName = classType.getInternalName();
         if (internalName.startsWith("net/minecraft/") || internalName.startsWith("com/mojang/"))
             return NAY;
-        
+
+        var index = ClassScanIndex.get();
+        if (index != null && index.isKnown(classType) && !index.isCapabilityToken(classType))
+            return NAY;
+
+        if (LaunchPluginCache.isUnchanged(name(), classType))
+            return NAY;
+
         return YAY;
     }
 
@@ -103,6 +112,7 @@ public class CapabilityTokenSubclass implements ILaunchPluginService {
             mtd.visitEnd();
             return ComputeFlags.COMPUTE_MAXS;
         } else {
+            LaunchPluginCache.recordUnchanged(name(), classType);
             return ComputeFlags.NO_REWRITE;
         }
     }
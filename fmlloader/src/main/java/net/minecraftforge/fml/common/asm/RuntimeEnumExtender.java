@@ -9,6 +9,8 @@ import java.util.EnumSet;
 import java.util.List;
 
 import com.mojang.logging.LogUtils;
+import net.minecraftforge.fml.loading.ClassScanIndex;
+import net.minecraftforge.fml.loading.LaunchPluginCache;
 import net.minecraftforge.fml.loading.LoadingModList;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.Opcodes;
@@ -58,20 +60,26 @@ public class RuntimeEnumExtender implements ILaunchPluginService {
             return NAY;
 
         String internalName = classType.getInternalName();
-        if (internalName.startsWith("net/minecraft/client/model") || internalName.startsWith("net/minecraft/world"))
-            return YAY;
+        if (!internalName.startsWith("net/minecraft/client/model") && !internalName.startsWith("net/minecraft/world"))
+            return NAY;
+
+        var index = ClassScanIndex.get();
+        if (index != null && index.isKnown(classType) && !index.isExtensibleEnum(classType))
+            return NAY;
+
+        if (LaunchPluginCache.isUnchanged(name(), classType))
+            return NAY;
 
-        return NAY;
+        return YAY;
     }
 
     @Override
     public int processClassWithFlags(final Phase phase, final ClassNode classNode, final Type classType, final String reason)
     {
-        if ((classNode.access & Opcodes.ACC_ENUM) == 0)
-            return ComputeFlags.NO_REWRITE;
-
-        if (!classNode.interfaces.contains(MARKER_IFACE.getInternalName()))
+        if ((classNode.access & Opcodes.ACC_ENUM) == 0 || !classNode.interfaces.contains(MARKER_IFACE.getInternalName())) {
+            LaunchPluginCache.recordUnchanged(name(), classType);
             return ComputeFlags.NO_REWRITE;
+        }
 
         Type array = Type.getType("[" + classType.getDescriptor());
         String arrayDesc = array.getDescriptor();
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.fml.loading;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.Type;
+
+import com.mojang.logging.LogUtils;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.api.distmarker.OnlyIns;
+import org.slf4j.Logger;
+
+/**
+ * Index of the classes the built-in launch plugins care about, built from the {@link net.minecraftforge.forgespi.language.ModFileScanData
+ * scan data} of every mod file, including Minecraft and Forge themselves.
+ * <p>
+ * Lets {@link RuntimeDistCleaner}, {@link net.minecraftforge.fml.common.asm.RuntimeEnumExtender} and
+ * {@link net.minecraftforge.fml.common.asm.CapabilityTokenSubclass} skip building a {@code ClassNode} for classes they would leave alone. Classes that weren't part of any scanned file, such as libraries or generated classes,
+ * aren't {@link #isKnown(Type) known}, and must be processed as before.
+ */
+@ApiStatus.Internal
+public final class ClassScanIndex {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Type ONLYIN = Type.getType(OnlyIn.class);
+    private static final Type ONLYINS = Type.getType(OnlyIns.class);
+    private static final Type EXTENSIBLE_ENUM = Type.getType("Lnet/minecraftforge/common/IExtensibleEnum;");
+    private static final Type CAPABILITY_TOKEN = Type.getType("Lnet/minecraftforge/common/capabilities/CapabilityToken;");
+
+    private static volatile ClassScanIndex instance;
+
+    /**
+     * @return the index, or null if the mod files haven't finished scanning yet
+     */
+    public static @Nullable ClassScanIndex get() {
+        var ret = instance;
+        if (ret != null)
+            return ret;
+
+        var scanner = FMLLoader.backgroundScanHandler;
+        if (scanner == null || !scanner.isComplete())
+            return null;
+
+        synchronized (ClassScanIndex.class) {
+            if (instance == null)
+                instance = build(scanner.getLoadingModList());
+            return instance;
+        }
+    }
+
+    private static ClassScanIndex build(LoadingModList modList) {
+        var ret = new ClassScanIndex();
+        for (var info : modList.getModFiles()) {
+            var data = info.getFile().getScanResult();
+            for (var cls : data.getClasses()) {
+                ret.known.add(cls.clazz());
+                if (cls.interfaces().contains(EXTENSIBLE_ENUM))
+                    ret.extensibleEnums.add(cls.clazz());
+                if (CAPABILITY_TOKEN.equals(cls.clazz()) || CAPABILITY_TOKEN.equals(cls.parent()))
+                    ret.capabilityTokens.add(cls.clazz());
+            }
+
+            for (var ann : data.getAnnotations()) {
+                if (ONLYIN.equals(ann.annotationType()) || ONLYINS.equals(ann.annotationType()))
+                    ret.distMarked.add(ann.clazz());
+            }
+        }
+        LOGGER.debug(LogMarkers.SCAN, "Indexed {} classes, {} with dist markers and {} extensible enums", ret.known.size(), ret.distMarked.size(), ret.extensibleEnums.size());
+        return ret;
+    }
+
+    private final Set<Type> known = new HashSet<>();
+    private final Set<Type> distMarked = new HashSet<>();
+    private final Set<Type> extensibleEnums = new HashSet<>();
+    private final Set<Type> capabilityTokens = new HashSet<>();
+
+    private ClassScanIndex() {}
+
+    /**
+     * @return true if the class was part of a scanned mod file, so the other queries can be trusted
+     */
+    public boolean isKnown(Type type) {
+        return this.known.contains(type);
+    }
+
+    /**
+     * @return true if the class, or any of its fields or methods, has {@link OnlyIn} or {@link OnlyIns} annotations
+     */
+    public boolean hasDistMarkers(Type type) {
+        return this.distMarked.contains(type);
+    }
+
+    /**
+     * @return true if the class directly implements {@code IExtensibleEnum}
+     */
+    public boolean isExtensibleEnum(Type type) {
+        return this.extensibleEnums.contains(type);
+    }
+
+    /**
+     * @return true if the class is {@code CapabilityToken} or directly extends it
+     */
+    public boolean isCapabilityToken(Type type) {
+        return this.capabilityTokens.contains(type);
+    }
+}
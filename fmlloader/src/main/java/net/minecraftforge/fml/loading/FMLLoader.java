@@ -228,6 +228,14 @@ public class FMLLoader {
         return moduleLayerManager.getLayer(IModuleLayerManager.Layer.GAME).orElseThrow();
     }
 
+    /**
+     * @return the specified layer, or empty if it hasn't been built yet
+     */
+    static Optional<ModuleLayer> findLayer(IModuleLayerManager.Layer layer) {
+        var manager = moduleLayerManager;
+        return manager == null ? Optional.empty() : manager.getLayer(layer);
+    }
+
     public static VersionInfo versionInfo() {
         return versionInfo;
     }
@@ -22,7 +22,8 @@ public enum FMLPaths
     GAMEDIR(),
     MODSDIR("mods"),
     CONFIGDIR("config"),
-    FMLCONFIG(false, CONFIGDIR, "fml.toml");
+    FMLCONFIG(false, CONFIGDIR, "fml.toml"),
+    CACHEDIR(false, GAMEDIR, ".cache", "forge");
 
     private static final Logger LOGGER = LogUtils.getLogger();
     private final Path relativePath;
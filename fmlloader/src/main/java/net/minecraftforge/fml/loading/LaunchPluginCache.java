@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.fml.loading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.module.ResolvedModule;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.Type;
+
+import com.mojang.logging.LogUtils;
+import cpw.mods.modlauncher.api.IModuleLayerManager;
+import org.slf4j.Logger;
+
+/**
+ * Opt-in cache of the classes each built-in launch plugin looked at and left unchanged, persisted between launches.
+ * <p>
+ * Enabled by setting the {@code fml.transformCache} system property to {@code true}. Launch plugins only get to say whether they
+ * want a class before seeing its bytes, so the cache remembers the classes a plugin processed without rewriting, and the next launch
+ * answers {@code NAY} for them without reading the class into a {@code ClassNode} at all. Classes a plugin does change are always
+ * transformed live.
+ * <p>
+ * The cache is keyed by the Forge, Minecraft and launcher versions, the dist, and the path, size and modification time of every
+ * module in the service and game layers and of FML itself. The service layer holds the other transformation services, like Mixin,
+ * so adding, removing or updating one of them also invalidates the cache. If any of them change, or a module isn't a plain file,
+ * like in a development environment, the cache is discarded and rebuilt.
+ */
+@ApiStatus.Internal
+public final class LaunchPluginCache {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final boolean ENABLED = Boolean.getBoolean("fml.transformCache");
+    private static final String FILE = "launch-plugins.bin";
+    private static final int MAGIC = 0x464D4C43; // FMLC
+    private static final int VERSION = 1;
+
+    private static volatile @Nullable LaunchPluginCache instance;
+    private static volatile boolean disabled = !ENABLED;
+
+    private final byte[] fingerprint;
+    private final Map<String, Set<String>> unchanged = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    private LaunchPluginCache(byte[] fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * @return true if the specified plugin processed this class without changing it in a previous launch with the same mods
+     */
+    public static boolean isUnchanged(String plugin, Type type) {
+        var cache = get();
+        if (cache == null)
+            return false;
+
+        var classes = cache.unchanged.get(plugin);
+        return classes != null && classes.contains(type.getInternalName());
+    }
+
+    /**
+     * Remembers that the specified plugin processed this class without changing it.
+     */
+    public static void recordUnchanged(String plugin, Type type) {
+        var cache = get();
+        if (cache == null)
+            return;
+
+        if (cache.unchanged.computeIfAbsent(plugin, k -> ConcurrentHashMap.newKeySet()).add(type.getInternalName()))
+            cache.dirty = true;
+    }
+
+    /**
+     * Writes any newly recorded classes to disk. Called once mod loading has finished, and again on shutdown to pick up classes
+     * loaded while playing.
+     */
+    public static void save() {
+        var cache = instance;
+        if (cache == null || !cache.dirty)
+            return;
+
+        synchronized (LaunchPluginCache.class) {
+            if (!cache.dirty)
+                return;
+            cache.dirty = false;
+
+            var path = getPath();
+            var tmp = path.resolveSibling(FILE + ".tmp");
+            try {
+                Files.createDirectories(path.getParent());
+            } catch (IOException e) {
+                LOGGER.warn(LogMarkers.CORE, "Failed to save launch plugin cache to {}", path, e);
+                return;
+            }
+
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.write(cache.fingerprint);
+                out.writeInt(cache.unchanged.size());
+                for (var entry : cache.unchanged.entrySet()) {
+                    var classes = entry.getValue().toArray(String[]::new);
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(classes.length);
+                    for (var cls : classes)
+                        out.writeUTF(cls);
+                }
+            } catch (IOException e) {
+                LOGGER.warn(LogMarkers.CORE, "Failed to save launch plugin cache to {}", path, e);
+                return;
+            }
+
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                LOGGER.warn(LogMarkers.CORE, "Failed to save launch plugin cache to {}", path, e);
+            }
+        }
+    }
+
+    private static @Nullable LaunchPluginCache get() {
+        var ret = instance;
+        if (ret != null || disabled)
+            return ret;
+
+        synchronized (LaunchPluginCache.class) {
+            if (instance != null || disabled)
+                return instance;
+
+            var serviceLayer = FMLLoader.findLayer(IModuleLayerManager.Layer.SERVICE).orElse(null);
+            var gameLayer = FMLLoader.findLayer(IModuleLayerManager.Layer.GAME).orElse(null);
+            if (serviceLayer == null || gameLayer == null)
+                return null; // Too early, nothing is being transformed yet
+
+            var fingerprint = fingerprint(serviceLayer, gameLayer);
+            if (fingerprint == null) {
+                disabled = true;
+                return null;
+            }
+
+            instance = load(fingerprint);
+            Runtime.getRuntime().addShutdownHook(new Thread(LaunchPluginCache::save, "FML launch plugin cache"));
+            return instance;
+        }
+    }
+
+    private static LaunchPluginCache load(byte[] fingerprint) {
+        var ret = new LaunchPluginCache(fingerprint);
+        var path = getPath();
+        if (!Files.isRegularFile(path))
+            return ret;
+
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            var stored = new byte[fingerprint.length];
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                return ret;
+            in.readFully(stored);
+            if (!Arrays.equals(stored, fingerprint)) {
+                LOGGER.info(LogMarkers.CORE, "Game files changed since the launch plugin cache was written, rebuilding it");
+                return ret;
+            }
+
+            int plugins = in.readInt();
+            int total = 0;
+            for (int x = 0; x < plugins; x++) {
+                var plugin = in.readUTF();
+                int count = in.readInt();
+                Set<String> classes = ConcurrentHashMap.newKeySet(count);
+                for (int y = 0; y < count; y++)
+                    classes.add(in.readUTF());
+                ret.unchanged.put(plugin, classes);
+                total += count;
+            }
+            LOGGER.debug(LogMarkers.CORE, "Loaded {} unchanged classes for {} launch plugins from {}", total, plugins, path);
+        } catch (IOException e) {
+            LOGGER.warn(LogMarkers.CORE, "Failed to read launch plugin cache from {}, ignoring it", path, e);
+            ret.unchanged.clear();
+        }
+        return ret;
+    }
+
+    /**
+     * @return a hash of everything that could change what the plugins do to a class, or null if it can't be computed reliably
+     */
+    private static byte @Nullable [] fingerprint(ModuleLayer serviceLayer, ModuleLayer gameLayer) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+
+        var versions = FMLLoader.versionInfo();
+        update(digest, versions == null ? "unknown" : versions.mcAndForgeVersion());
+        update(digest, FMLLoader.getLauncherInfo());
+        update(digest, String.valueOf(FMLLoader.getDist()));
+        update(digest, String.valueOf(FMLLoader.isProduction()));
+
+        var self = LaunchPluginCache.class.getModule();
+        if (self.getLayer() == null || !update(digest, self.getLayer().configuration().findModule(self.getName()).orElse(null)))
+            return null;
+
+        if (!update(digest, serviceLayer) || !update(digest, gameLayer))
+            return null;
+        return digest.digest();
+    }
+
+    private static boolean update(MessageDigest digest, ModuleLayer layer) {
+        var modules = layer.configuration().modules().stream()
+            .sorted(Comparator.comparing(ResolvedModule::name))
+            .toList();
+        update(digest, Integer.toString(modules.size()));
+        for (var module : modules) {
+            if (!update(digest, module)) {
+                LOGGER.debug(LogMarkers.CORE, "Not using the launch plugin cache, {} is not a single file", module.name());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean update(MessageDigest digest, @Nullable ResolvedModule module) {
+        var location = module == null ? null : module.reference().location().orElse(null);
+        if (location == null || !"file".equals(location.getScheme()))
+            return false;
+
+        var path = Path.of(location);
+        try {
+            if (!Files.isRegularFile(path))
+                return false;
+            update(digest, module.name());
+            update(digest, path.toString());
+            update(digest, Long.toString(Files.size(path)));
+            update(digest, Long.toString(Files.getLastModifiedTime(path).toMillis()));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)0);
+    }
+
+    private static Path getPath() {
+        return FMLPaths.CACHEDIR.get().resolve(FILE);
+    }
+}
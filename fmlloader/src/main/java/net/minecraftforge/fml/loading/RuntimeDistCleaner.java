@@ -52,6 +52,14 @@ public class RuntimeDistCleaner implements ILaunchPluginService {
         if (internalName.startsWith("net/minecraftforge/"))
             return NAY;
 
+        // Nothing to strip from scanned classes that don't use @OnlyIn anywhere
+        var index = ClassScanIndex.get();
+        if (index != null && index.isKnown(classType) && !index.hasDistMarkers(classType))
+            return NAY;
+
+        if (LaunchPluginCache.isUnchanged(name(), classType))
+            return NAY;
+
         return YAY;
     }
 
@@ -135,6 +143,9 @@ public class RuntimeDistCleaner implements ILaunchPluginService {
             }
         }
 
+        if (!changed)
+            LaunchPluginCache.recordUnchanged(name(), classType);
+
         return changed ? ComputeFlags.SIMPLE_REWRITE : ComputeFlags.NO_REWRITE;
     }
 
@@ -32,7 +32,7 @@ public class BackgroundScanHandler
     private static final boolean DEBUG = LOGGER.isErrorEnabled(LogMarkers.SCAN);
     private final ExecutorService modContentScanner;
     private final List<ModFile> modFiles;
-    private ScanStatus status;
+    private volatile ScanStatus status;
     private LoadingModList loadingModList;
 
     public BackgroundScanHandler(final List<ModFile> modFiles) {
@@ -79,6 +79,13 @@ public class BackgroundScanHandler
         return loadingModList;
     }
 
+    /**
+     * @return true once every mod file has been scanned successfully
+     */
+    public boolean isComplete() {
+        return status == ScanStatus.COMPLETE;
+    }
+
     public void waitForScanToComplete(final Runnable ticker) {
         boolean timeoutActive = System.getProperty("fml.disableScanTimeout") == null;
         Instant deadline = Instant.now().plus(Duration.ofMinutes(10));
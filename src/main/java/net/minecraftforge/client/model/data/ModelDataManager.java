@@ -6,6 +6,9 @@
 package net.minecraftforge.client.model.data;
 
 import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.ChunkPos;
@@ -20,23 +23,27 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * A manager for the lifecycle of all the {@link ModelData} instances in a {@link Level}.
  * <p>
+ * Model data is tracked per chunk section, keyed by {@link SectionPos#asLong() packed section position}, and within a section by
+ * {@link BlockPos#asLong() packed block position}. Each section publishes an immutable snapshot of its data, so chunk meshing threads
+ * can read it without locking or allocating. Refresh requests set a bit per block in the section, so repeated requests for the same
+ * block before the next read are merged, and are applied by the next reader.
+ * <p>
  * Users should not be instantiating or using this themselves unless they know what they're doing.
  */
 @ApiStatus.Internal
 @EventBusSubscriber(modid = "forge", bus = Bus.FORGE, value = Dist.CLIENT)
 public class ModelDataManager {
     private final Level level;
-    private final Map<ChunkPos, Set<BlockPos>> needModelDataRefresh = new ConcurrentHashMap<>();
-    private final Map<ChunkPos, Map<BlockPos, ModelData>> modelDataCache = new ConcurrentHashMap<>();
+    private final StampedLock lock = new StampedLock();
+    private final Long2ObjectMap<Section> sections = new Long2ObjectOpenHashMap<>();
 
     public ModelDataManager(Level level) {
         this.level = level;
@@ -44,27 +51,14 @@ public class ModelDataManager {
 
     public void requestRefresh(@NotNull BlockEntity blockEntity) {
         Preconditions.checkNotNull(blockEntity, "Block entity must not be null");
-        needModelDataRefresh.computeIfAbsent(new ChunkPos(blockEntity.getBlockPos()), $ -> Collections.synchronizedSet(new HashSet<>()))
-                            .add(blockEntity.getBlockPos());
-    }
-
-    private void refreshAt(ChunkPos chunk) {
-        Set<BlockPos> needUpdate = needModelDataRefresh.remove(chunk);
-
-        if (needUpdate != null) {
-            Map<BlockPos, ModelData> data = modelDataCache.computeIfAbsent(chunk, $ -> new ConcurrentHashMap<>());
-            for (BlockPos pos : needUpdate) {
-                BlockEntity toUpdate = level.getBlockEntity(pos);
-                if (toUpdate != null && !toUpdate.isRemoved())
-                    data.put(pos, toUpdate.getModelData());
-                else
-                    data.remove(pos);
-            }
-        }
+        BlockPos pos = blockEntity.getBlockPos();
+        getOrCreateSection(SectionPos.blockToSection(pos.asLong())).request(pos);
     }
 
     public @Nullable ModelData getAt(BlockPos pos) {
-        return getAt(new ChunkPos(pos)).get(pos);
+        Preconditions.checkArgument(level.isClientSide(), "Cannot request model data for server level");
+        var section = getSection(SectionPos.blockToSection(pos.asLong()));
+        return section == null ? null : section.refresh(level).get(pos.asLong());
     }
 
     public ModelData getAtOrEmpty(BlockPos pos) {
@@ -72,14 +66,127 @@ public class ModelDataManager {
         return ret == null ? ModelData.EMPTY : ret;
     }
 
-    public Map<BlockPos, ModelData> getAt(SectionPos pos) {
-        return getAt(pos.chunk());
+    /**
+     * @return An immutable view of the model data in the specified section, keyed by {@link BlockPos#asLong()}.
+     */
+    public Long2ObjectMap<ModelData> getAt(SectionPos pos) {
+        Preconditions.checkArgument(level.isClientSide(), "Cannot request model data for server level");
+        var section = getSection(pos.asLong());
+        return section == null ? Long2ObjectMaps.emptyMap() : section.refresh(level);
     }
 
+    /**
+     * Collects the model data of every section in the specified chunk into a new map.
+     * Prefer {@link #getAt(SectionPos)} or {@link #getAt(BlockPos)}, which don't need to allocate.
+     */
     public Map<BlockPos, ModelData> getAt(ChunkPos pos) {
         Preconditions.checkArgument(level.isClientSide(), "Cannot request model data for server level");
-        refreshAt(pos);
-        return modelDataCache.getOrDefault(pos, Collections.emptyMap());
+        var ret = new HashMap<BlockPos, ModelData>();
+        for (int y = level.getMinSectionY(); y <= level.getMaxSectionY(); y++) {
+            var section = getSection(SectionPos.asLong(pos.x, y, pos.z));
+            if (section == null)
+                continue;
+
+            for (var entry : Long2ObjectMaps.fastIterable(section.refresh(level)))
+                ret.put(BlockPos.of(entry.getLongKey()), entry.getValue());
+        }
+        return ret;
+    }
+
+    private @Nullable Section getSection(long key) {
+        long stamp = lock.readLock();
+        try {
+            return sections.get(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Section getOrCreateSection(long key) {
+        var ret = getSection(key);
+        if (ret != null)
+            return ret;
+
+        long stamp = lock.writeLock();
+        try {
+            ret = sections.get(key);
+            if (ret == null) {
+                ret = new Section(SectionPos.of(key).origin());
+                sections.put(key, ret);
+            }
+            return ret;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void removeChunk(ChunkPos chunk) {
+        long stamp = lock.writeLock();
+        try {
+            for (int y = level.getMinSectionY(); y <= level.getMaxSectionY(); y++)
+                sections.remove(SectionPos.asLong(chunk.x, y, chunk.z));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static final class Section {
+        /** One bit for each block in the section */
+        private static final int PENDING_WORDS = 16 * 16 * 16 / 64;
+
+        private final BlockPos origin;
+        private final AtomicLongArray pending = new AtomicLongArray(PENDING_WORDS);
+        /** Set after a pending bit, and cleared before the bits are read, so no request is missed */
+        private volatile boolean dirty;
+        private volatile Long2ObjectMap<ModelData> data = Long2ObjectMaps.emptyMap();
+
+        private Section(BlockPos origin) {
+            this.origin = origin;
+        }
+
+        private void request(BlockPos pos) {
+            int index = SectionPos.sectionRelative(pos.getY()) << 8 | SectionPos.sectionRelative(pos.getZ()) << 4 | SectionPos.sectionRelative(pos.getX());
+            long bit = 1L << index;
+            if ((pending.get(index >>> 6) & bit) == 0)
+                pending.getAndAccumulate(index >>> 6, bit, (a, b) -> a | b);
+            dirty = true;
+        }
+
+        /**
+         * Applies any pending refreshes and returns the current snapshot.
+         * Only one thread rebuilds the snapshot at a time, everyone else just reads the last published one.
+         */
+        private Long2ObjectMap<ModelData> refresh(Level level) {
+            if (!dirty)
+                return data;
+
+            synchronized (this) {
+                if (!dirty)
+                    return data;
+                dirty = false;
+
+                var updated = new Long2ObjectOpenHashMap<>(data);
+                var pos = new BlockPos.MutableBlockPos();
+                for (int word = 0; word < PENDING_WORDS; word++) {
+                    long bits = pending.getAndSet(word, 0);
+                    while (bits != 0) {
+                        int index = word << 6 | Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        pos.setWithOffset(origin, index & 15, index >>> 8, index >>> 4 & 15);
+
+                        BlockEntity toUpdate = level.getBlockEntity(pos);
+                        if (toUpdate != null && !toUpdate.isRemoved())
+                            updated.put(pos.asLong(), toUpdate.getModelData());
+                        else
+                            updated.remove(pos.asLong());
+                    }
+                }
+
+                var ret = updated.isEmpty() ? Long2ObjectMaps.<ModelData>emptyMap() : Long2ObjectMaps.unmodifiable(updated);
+                data = ret;
+                return ret;
+            }
+        }
     }
 
     @SubscribeEvent
@@ -92,8 +199,6 @@ public class ModelDataManager {
         if (modelDataManager == null)
             return;
 
-        ChunkPos chunk = event.getChunk().getPos();
-        modelDataManager.needModelDataRefresh.remove(chunk);
-        modelDataManager.modelDataCache.remove(chunk);
+        modelDataManager.removeChunk(event.getChunk().getPos());
     }
 }
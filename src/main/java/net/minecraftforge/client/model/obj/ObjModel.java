@@ -36,7 +36,6 @@ import org.joml.Vector4f;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -44,7 +43,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * A model loaded from an OBJ file.
@@ -124,14 +122,13 @@ public class ObjModel {
                 mtllib = ObjLoader.INSTANCE.loadMaterialLibrary(ResourceLocation.fromNamespaceAndPath(modelDomain, modelPath + lib));
         }
 
-        String[] line;
-        while ((line = tokenizer.readAndSplitLine(true)) != null) {
-            switch (line[0]) {
+        while (tokenizer.nextLine()) {
+            switch (keyword(tokenizer)) {
                 case "mtllib": { // Loads material library
                     if (materialLibraryOverrideLocation != null)
                         break;
 
-                    String lib = line[1];
+                    String lib = tokenizer.token(1);
                     if (lib.contains(":"))
                         mtllib = ObjLoader.INSTANCE.loadMaterialLibrary(ResourceLocation.parse(lib));
                     else
@@ -139,8 +136,13 @@ public class ObjModel {
                     break;
                 }
                 case "usemtl": { // Sets the current material (starts new mesh)
-                    String mat = Arrays.asList(Arrays.copyOfRange(line, 1, line.length)).stream().collect(Collectors.joining(" "));
-                    ObjMaterialLibrary.Material newMat = mtllib.getMaterial(mat);
+                    var mat = new StringBuilder();
+                    for (int i = 1; i < tokenizer.tokenCount(); i++) {
+                        if (i > 1)
+                            mat.append(' ');
+                        mat.append(tokenizer.token(i));
+                    }
+                    ObjMaterialLibrary.Material newMat = mtllib.getMaterial(mat.toString());
                     if (!Objects.equals(newMat, currentMat)) {
                         currentMat = newMat;
                         if (currentMesh != null && currentMesh.mat == null && currentMesh.faces.isEmpty())
@@ -151,16 +153,16 @@ public class ObjModel {
                     break;
                 }
                 case "v": // Vertex
-                    model.positions.add(parseVector4To3(line));
+                    model.positions.add(parseVector4To3(tokenizer));
                     break;
                 case "vt": // Vertex texcoord
-                    model.texCoords.add(parseVector2(line));
+                    model.texCoords.add(parseVector2(tokenizer));
                     break;
                 case "vn": // Vertex normal
-                    model.normals.add(parseVector3(line));
+                    model.normals.add(parseVector3(tokenizer));
                     break;
                 case "vc": // Vertex color (non-standard)
-                    model.colors.add(parseVector4(line));
+                    model.colors.add(parseVector4(tokenizer));
                     break;
                 case "f": { // Face
                     if (currentMesh == null) {
@@ -176,11 +178,9 @@ public class ObjModel {
                         }
                     }
 
-                    int[][] vertices = new int[line.length - 1][];
+                    int[][] vertices = new int[tokenizer.tokenCount() - 1][];
                     for (int i = 0; i < vertices.length; i++) {
-                        String vertexData = line[i + 1];
-                        String[] vertexParts = vertexData.split("/");
-                        int[] vertex = Arrays.stream(vertexParts).mapToInt(num -> num == null || num.isEmpty() ? 0 : Integer.parseInt(num)).toArray();
+                        int[] vertex = tokenizer.parseIndices(i + 1);
                         for (int x = 0; x < 4 && x < vertex.length; x++) {
                             if (vertex[x] < 0)
                                 vertex[x] = model.positions.size() + vertex[x];
@@ -194,7 +194,7 @@ public class ObjModel {
                     break;
                 }
                 case "s": { // Smoothing group (starts new mesh)
-                    String smoothingGroup = "off".equals(line[1]) ? null : line[1];
+                    String smoothingGroup = tokenizer.tokenEquals(1, "off") ? null : tokenizer.token(1);
                     if (!Objects.equals(currentSmoothingGroup, smoothingGroup)) {
                         currentSmoothingGroup = smoothingGroup;
                         if (currentMesh != null && currentMesh.smoothingGroup == null && currentMesh.faces.isEmpty())
@@ -205,7 +205,7 @@ public class ObjModel {
                     break;
                 }
                 case "g": {
-                    String name = line[1];
+                    String name = tokenizer.token(1);
                     if (objAboveGroup) {
                         currentObject = model.new ModelObject(currentGroup.name() + "/" + name);
                         currentGroup.parts.put(name, currentObject);
@@ -219,7 +219,7 @@ public class ObjModel {
                     break;
                 }
                 case "o": {
-                    String name = line[1];
+                    String name = tokenizer.token(1);
                     if (objAboveGroup || currentGroup == null) {
                         objAboveGroup = true;
 
@@ -239,8 +239,19 @@ public class ObjModel {
         return model;
     }
 
-    private static Vector3f parseVector4To3(String[] line) {
-        Vector4f vec4 = parseVector4(line);
+    private static final String[] KEYWORDS = { "v", "vt", "vn", "vc", "f", "s", "g", "o", "usemtl", "mtllib" };
+
+    /** Matches the first token against the known keywords, so we don't need to create a string for every line. */
+    private static String keyword(ObjTokenizer tokenizer) {
+        for (String keyword : KEYWORDS) {
+            if (tokenizer.tokenEquals(0, keyword))
+                return keyword;
+        }
+        return "";
+    }
+
+    private static Vector3f parseVector4To3(ObjTokenizer tokenizer) {
+        Vector4f vec4 = parseVector4(tokenizer);
         return new Vector3f(
             vec4.x() / vec4.w(),
             vec4.y() / vec4.w(),
@@ -248,20 +259,30 @@ public class ObjModel {
         );
     }
 
-    private static Vec2 parseVector2(String[] line) {
-        return switch (line.length) {
+    private static Vec2 parseVector2(ObjTokenizer tokenizer) {
+        return switch (tokenizer.tokenCount()) {
             case 1 -> new Vec2(0, 0);
-            case 2 -> new Vec2(Float.parseFloat(line[1]), 0);
-            default -> new Vec2(Float.parseFloat(line[1]), Float.parseFloat(line[2]));
+            case 2 -> new Vec2(tokenizer.parseFloat(1), 0);
+            default -> new Vec2(tokenizer.parseFloat(1), tokenizer.parseFloat(2));
         };
     }
 
-    private static Vector3f parseVector3(String[] line) {
-        return switch (line.length) {
+    private static Vector3f parseVector3(ObjTokenizer tokenizer) {
+        return switch (tokenizer.tokenCount()) {
             case 1 -> new Vector3f();
-            case 2 -> new Vector3f(Float.parseFloat(line[1]), 0, 0);
-            case 3 -> new Vector3f(Float.parseFloat(line[1]), Float.parseFloat(line[2]), 0);
-            default -> new Vector3f(Float.parseFloat(line[1]), Float.parseFloat(line[2]), Float.parseFloat(line[3]));
+            case 2 -> new Vector3f(tokenizer.parseFloat(1), 0, 0);
+            case 3 -> new Vector3f(tokenizer.parseFloat(1), tokenizer.parseFloat(2), 0);
+            default -> new Vector3f(tokenizer.parseFloat(1), tokenizer.parseFloat(2), tokenizer.parseFloat(3));
+        };
+    }
+
+    private static Vector4f parseVector4(ObjTokenizer tokenizer) {
+        return switch (tokenizer.tokenCount()) {
+            case 1 -> new Vector4f();
+            case 2 -> new Vector4f(tokenizer.parseFloat(1), 0, 0, 1);
+            case 3 -> new Vector4f(tokenizer.parseFloat(1), tokenizer.parseFloat(2), 0, 1);
+            case 4 -> new Vector4f(tokenizer.parseFloat(1), tokenizer.parseFloat(2), tokenizer.parseFloat(3), 1);
+            default -> new Vector4f(tokenizer.parseFloat(1), tokenizer.parseFloat(2), tokenizer.parseFloat(3), tokenizer.parseFloat(4));
         };
     }
 
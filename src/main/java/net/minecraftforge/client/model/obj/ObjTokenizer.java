@@ -5,81 +5,334 @@
 
 package net.minecraftforge.client.model.obj;
 
-import com.google.common.base.Charsets;
-import joptsimple.internal.Strings;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.List;
 
 /**
  * A tokenizer for OBJ and MTL files.
  * <p>
  * Joins split lines and ignores comments.
+ * <p>
+ * The whole file is read into memory in one go, and tokens are tracked as ranges into that buffer. Use {@link #nextLine()} with
+ * {@link #parseFloat(int)} and {@link #parseIndices(int)} to parse values in place without creating strings for every token.
+ * {@link #readAndSplitLine(boolean)} is still available for callers that want the tokens as strings.
  */
 public class ObjTokenizer implements AutoCloseable
 {
-    private final BufferedReader lineReader;
+    private static final String[] EMPTY = new String[0];
+    // Every power of ten up to 10^10 is exactly representable as a float
+    private static final float[] POW10 = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+    private static final long MAX_EXACT_MANTISSA = 1 << 24;
+
+    private final InputStream inputStream;
+    private byte[] data;
+    private int position;
+
+    private int tokenCount;
+    private int[] tokenStart = new int[16];
+    private int[] tokenEnd = new int[16];
 
     public ObjTokenizer(InputStream inputStream)
     {
-        this.lineReader = new BufferedReader(new InputStreamReader(inputStream, Charsets.UTF_8));
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Advances to the next line that has any tokens.
+     *
+     * @return false if the end of the file was reached
+     */
+    public boolean nextLine() throws IOException
+    {
+        return readLine(true);
+    }
+
+    /**
+     * @return the number of tokens on the current line
+     */
+    public int tokenCount()
+    {
+        return tokenCount;
+    }
+
+    public String token(int index)
+    {
+        checkIndex(index);
+        return new String(data, tokenStart[index], tokenEnd[index] - tokenStart[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares a token against an ASCII string without decoding it.
+     */
+    public boolean tokenEquals(int index, String value)
+    {
+        checkIndex(index);
+        int start = tokenStart[index];
+        int length = tokenEnd[index] - start;
+        if (length != value.length())
+            return false;
+
+        for (int i = 0; i < length; i++)
+        {
+            if (data[start + i] != value.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses a token as a float, giving exactly the same result as {@link Float#parseFloat(String)}.
+     * <p>
+     * Plain decimals with up to 7 significant digits, which covers what most exporters write, are parsed directly from the buffer.
+     * Anything else falls back to {@link Float#parseFloat(String)}.
+     */
+    public float parseFloat(int index)
+    {
+        checkIndex(index);
+        int start = tokenStart[index];
+        int end = tokenEnd[index];
+        int i = start;
+
+        boolean negative = false;
+        if (i < end && (data[i] == '-' || data[i] == '+'))
+            negative = data[i++] == '-';
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        boolean any = false;
+        for (; i < end; i++)
+        {
+            byte c = data[i];
+            if (c >= '0' && c <= '9')
+            {
+                any = true;
+                if (fraction)
+                    scale++;
+                if (mantissa == 0 && c == '0')
+                    continue;
+                if (++digits > 18)
+                    return parseFloatSlow(start, end);
+                mantissa = mantissa * 10 + (c - '0');
+            }
+            else if (c == '.' && !fraction)
+                fraction = true;
+            else
+                return parseFloatSlow(start, end);
+        }
+
+        if (!any)
+            return parseFloatSlow(start, end);
+
+        while (scale > 0 && mantissa != 0 && mantissa % 10 == 0)
+        {
+            mantissa /= 10;
+            scale--;
+        }
+
+        // Both operands are exact floats, so the single rounding of the division matches a correctly rounded parse
+        if (mantissa > MAX_EXACT_MANTISSA || scale >= POW10.length)
+            return parseFloatSlow(start, end);
+
+        float value = (float)mantissa / POW10[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a face vertex token such as {@code 1/2/3}, {@code 1//3} or {@code 1}, the same way splitting it on {@code /}
+     * and parsing every part would. Empty parts are returned as 0, and trailing empty parts are dropped.
+     */
+    public int[] parseIndices(int index)
+    {
+        checkIndex(index);
+        int start = tokenStart[index];
+        int end = tokenEnd[index];
+
+        // Count up to the last non-empty part, to match String.split dropping trailing empty strings
+        int parts = 0;
+        int current = 1;
+        boolean empty = true;
+        for (int i = start; i < end; i++)
+        {
+            if (data[i] == '/')
+            {
+                current++;
+                empty = true;
+            }
+            else if (empty)
+            {
+                empty = false;
+                parts = current;
+            }
+        }
+
+        int[] ret = new int[parts];
+        int part = 0;
+        int partStart = start;
+        for (int i = start; i <= end && part < parts; i++)
+        {
+            if (i == end || data[i] == '/')
+            {
+                ret[part++] = parseInt(partStart, i);
+                partStart = i + 1;
+            }
+        }
+        return ret;
     }
 
     @Nullable
     public String[] readAndSplitLine(boolean ignoreEmptyLines) throws IOException
     {
+        if (!readLine(ignoreEmptyLines))
+            return null;
+
+        if (tokenCount == 0)
+            return EMPTY;
+
+        String[] ret = new String[tokenCount];
+        for (int i = 0; i < tokenCount; i++)
+            ret[i] = token(i);
+        return ret;
+    }
+
+    private boolean readLine(boolean ignoreEmptyLines) throws IOException
+    {
+        if (data == null)
+            data = inputStream.readAllBytes();
+
+        tokenCount = 0;
+
         //noinspection LoopConditionNotUpdatedInsideLoop
         do
         {
-            String currentLine = lineReader.readLine();
-            if (currentLine == null)
-                return null;
+            if (position >= data.length)
+                return false;
 
-            List<String> lineParts = new ArrayList<>();
+            int start = position;
+            int end = lineEnd(start);
 
-            if (currentLine.startsWith("#"))
-                currentLine = "";
+            if (end > start && data[start] == '#')
+                end = start;
 
-            if (!currentLine.isEmpty())
+            if (end > start)
             {
-
                 boolean hasContinuation;
                 do
                 {
-                    hasContinuation = currentLine.endsWith("\\");
-                    String tmp = hasContinuation ? currentLine.substring(0, currentLine.length() - 1) : currentLine;
-
-                    Arrays.stream(tmp.split("[\t ]+")).filter(s -> !Strings.isNullOrEmpty(s)).forEach(lineParts::add);
+                    hasContinuation = data[end - 1] == '\\';
+                    split(start, hasContinuation ? end - 1 : end);
 
                     if (hasContinuation)
                     {
-                        currentLine = lineReader.readLine();
-                        if (currentLine == null)
+                        if (position >= data.length)
                             break;
 
-                        if (currentLine.isEmpty() || currentLine.startsWith("#"))
+                        start = position;
+                        end = lineEnd(start);
+
+                        if (end == start || data[start] == '#')
                             break;
                     }
                 } while (hasContinuation);
             }
 
-            if (!lineParts.isEmpty())
-                return lineParts.toArray(new String[0]);
+            if (tokenCount > 0)
+                return true;
         }
         while (ignoreEmptyLines);
 
-        return new String[0];
+        return true;
+    }
+
+    /**
+     * Finds the end of the line starting at {@code start} and moves the position past its terminator.
+     * Lines end at {@code \n}, {@code \r} or {@code \r\n}, like {@link java.io.BufferedReader#readLine()}.
+     */
+    private int lineEnd(int start)
+    {
+        int end = start;
+        while (end < data.length && data[end] != '\n' && data[end] != '\r')
+            end++;
+
+        position = end;
+        if (position < data.length)
+        {
+            if (data[position] == '\r' && position + 1 < data.length && data[position + 1] == '\n')
+                position++;
+            position++;
+        }
+        return end;
+    }
+
+    private void split(int start, int end)
+    {
+        int i = start;
+        while (i < end)
+        {
+            while (i < end && (data[i] == ' ' || data[i] == '\t'))
+                i++;
+            if (i == end)
+                break;
+
+            int tokenBegin = i;
+            while (i < end && data[i] != ' ' && data[i] != '\t')
+                i++;
+
+            if (tokenCount == tokenStart.length)
+            {
+                tokenStart = Arrays.copyOf(tokenStart, tokenCount * 2);
+                tokenEnd = Arrays.copyOf(tokenEnd, tokenCount * 2);
+            }
+            tokenStart[tokenCount] = tokenBegin;
+            tokenEnd[tokenCount] = i;
+            tokenCount++;
+        }
+    }
+
+    private int parseInt(int start, int end)
+    {
+        if (start == end)
+            return 0;
+
+        int i = start;
+        boolean negative = false;
+        if (data[i] == '-' || data[i] == '+')
+            negative = data[i++] == '-';
+
+        // Nine digits can't overflow, leave anything longer or malformed to Integer.parseInt
+        if (i == end || end - i > 9)
+            return Integer.parseInt(new String(data, start, end - start, StandardCharsets.UTF_8));
+
+        int value = 0;
+        for (; i < end; i++)
+        {
+            byte c = data[i];
+            if (c < '0' || c > '9')
+                return Integer.parseInt(new String(data, start, end - start, StandardCharsets.UTF_8));
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private float parseFloatSlow(int start, int end)
+    {
+        return Float.parseFloat(new String(data, start, end - start, StandardCharsets.UTF_8));
+    }
+
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= tokenCount)
+            throw new IndexOutOfBoundsException("Token index " + index + " out of bounds for length " + tokenCount);
     }
 
     @Override
     public void close() throws IOException
     {
-        lineReader.close();
+        inputStream.close();
     }
 }
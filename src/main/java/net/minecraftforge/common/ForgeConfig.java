@@ -12,6 +12,7 @@ import org.apache.logging.log4j.LogManager;
 
 import net.minecraftforge.common.ForgeConfigSpec.BooleanValue;
 import net.minecraftforge.common.ForgeConfigSpec.ConfigValue;
+import net.minecraftforge.common.ForgeConfigSpec.IntValue;
 import org.apache.logging.log4j.Logger;
 
 public class ForgeConfig {
@@ -26,6 +27,10 @@ public class ForgeConfig {
 
         public final ConfigValue<String> permissionHandler;
 
+        public final IntValue permissionCacheMillis;
+
+        public final BooleanValue cacheSpawnPackSizes;
+
         public final BooleanValue advertiseDedicatedServerToLan;
 
         Server(ForgeConfigSpec.Builder builder) {
@@ -55,6 +60,16 @@ public class ForgeConfig {
                     .translation("forge.configgui.permissionHandler")
                     .define("permissionHandler", "forge:default_handler");
 
+            permissionCacheMillis = builder
+                    .comment("How long, in milliseconds, permission results are cached for. Set to 0 to disable the cache and query the permission handler every time.")
+                    .translation("forge.configgui.permissionCacheMillis")
+                    .defineInRange("permissionCacheMillis", 0, 0, Integer.MAX_VALUE);
+
+            cacheSpawnPackSizes = builder
+                    .comment("Set this to true to fire LivingPackSizeEvent once per entity type per tick during natural spawning, instead of once for every spawned mob. Listeners will only see the first mob of each type, so only enable this if none of them depend on the specific entity. Default: false.")
+                    .translation("forge.configgui.cacheSpawnPackSizes")
+                    .define("cacheSpawnPackSizes", false);
+
             advertiseDedicatedServerToLan = builder
                     .comment("Set this to true to enable advertising the dedicated server to local LAN clients so that it shows up in the Multiplayer screen automatically.")
                     .translation("forge.configgui.advertiseDedicatedServerToLan")
@@ -62,6 +77,11 @@ public class ForgeConfig {
 
             builder.pop();
         }
+
+        // Allow this to be called when the server config is not loaded, as mobs can be spawned before it is.
+        public final boolean cacheSpawnPackSizes() {
+            return serverSpec.isLoaded() ? cacheSpawnPackSizes.get() : cacheSpawnPackSizes.getDefault();
+        }
     }
 
     /**
@@ -168,6 +168,7 @@ import net.minecraftforge.network.NetworkInitialization;
 import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.packets.SpawnEntity;
 import net.minecraftforge.resource.ResourcePackLoader;
+import net.minecraftforge.registries.DataSerializerTable;
 import net.minecraftforge.registries.ForgeRegistries;
 import net.minecraftforge.registries.ForgeRegistry;
 import net.minecraftforge.registries.GameData;
@@ -720,25 +721,11 @@ public final class ForgeHooks {
 
     @Nullable
     public static EntityDataSerializer<?> getSerializer(int id, CrudeIncrementalIntIdentityHashBiMap<EntityDataSerializer<?>> vanilla) {
-        EntityDataSerializer<?> serializer = vanilla.byId(id);
-        if (serializer == null) {
-            // ForgeRegistries.DATA_SERIALIZERS is a deferred register now, so if this method is called too early, the registry will be null
-            var registry = (ForgeRegistry<EntityDataSerializer<?>>)ForgeRegistries.ENTITY_DATA_SERIALIZERS.get();
-            if (registry != null)
-                serializer = registry.getValue(id);
-        }
-        return serializer;
+        return DataSerializerTable.getSerializer(id, vanilla);
     }
 
     public static int getSerializerId(EntityDataSerializer<?> serializer, CrudeIncrementalIntIdentityHashBiMap<EntityDataSerializer<?>> vanilla) {
-        int id = vanilla.getId(serializer);
-        if (id < 0) {
-            // ForgeRegistries.DATA_SERIALIZERS is a deferred register now, so if this method is called too early, the registry will be null
-            var registry = (ForgeRegistry<EntityDataSerializer<?>>)ForgeRegistries.ENTITY_DATA_SERIALIZERS.get();
-            if (registry != null)
-                id = registry.getID(serializer);
-        }
-        return id;
+        return DataSerializerTable.getSerializerId(serializer, vanilla);
     }
 
     public static boolean canEntityDestroy(ServerLevel level, BlockPos pos, LivingEntity entity) {
@@ -15,6 +15,7 @@ import net.minecraftforge.common.loot.LootModifierManager;
 import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.player.PermissionsChangedEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.level.ChunkEvent;
 import net.minecraftforge.event.network.ConnectionStartEvent;
@@ -26,6 +27,7 @@ import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.network.filters.NetworkFilters;
 import net.minecraftforge.common.util.LogicalSidedProvider;
 import net.minecraftforge.server.command.ForgeCommand;
+import net.minecraftforge.server.permission.PermissionAPI;
 import net.minecraftforge.server.permission.events.PermissionGatherEvent;
 import net.minecraftforge.server.command.ConfigCommand;
 import org.jetbrains.annotations.ApiStatus;
@@ -83,6 +85,16 @@ public final class ForgeInternalHandler {
         UsernameCache.setUsername(event.getEntity().getUUID(), event.getEntity().getGameProfile().name());
     }
 
+    @SubscribeEvent
+    static void playerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        PermissionAPI.invalidateCache(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    static void onPermissionsChanged(PermissionsChangedEvent event) {
+        PermissionAPI.invalidateCache(event.getEntity().getUUID());
+    }
+
     @SubscribeEvent
     static void onCommandsRegister(RegisterCommandsEvent event) {
         new ForgeCommand(event.getDispatcher());
@@ -5,18 +5,29 @@
 
 package net.minecraftforge.common;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
-import com.google.common.base.Charsets;
 import net.minecraftforge.fml.loading.FMLLoader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -24,10 +35,10 @@ import org.apache.logging.log4j.Logger;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -37,17 +48,52 @@ import org.jetbrains.annotations.Nullable;
  * last known username.<br>
  * For convenience, {@link #getMap()} is provided to get an immutable copy of
  * the caches underlying map.
+ * <p>
+ * The cache is stored as a compact binary snapshot, plus a journal that every
+ * change is appended to. Changes are written by a single background thread,
+ * which batches everything that changed since its last write, and folds the
+ * journal back into the snapshot once it has grown as large as the snapshot.
+ * The json file used by older versions is only read, never deleted, so
+ * downgrading still finds the names that were known before upgrading.
  */
 public final class UsernameCache {
 
-    private static Map<UUID, String> map = new HashMap<>();
+    private static final Map<UUID, String> map = new ConcurrentHashMap<>();
+    /** Changes that haven't been written yet, a null value is a removal. Also guards ordering between the map and the journal. */
+    private static final Map<UUID, String> pending = new LinkedHashMap<>();
+
+    private static final Path saveFile = FMLLoader.getGamePath().resolve("usernamecache.bin");
+    private static final Path journalFile = FMLLoader.getGamePath().resolve("usernamecache.journal");
+    private static final Path legacyFile = FMLLoader.getGamePath().resolve("usernamecache.json");
+    private static final Gson gson = new Gson();
 
-    private static final Path saveFile = FMLLoader.getGamePath().resolve("usernamecache.json");
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final int SNAPSHOT_MAGIC = 0x55534E43; // USNC
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final byte JOURNAL_SET = 1;
+    private static final byte JOURNAL_REMOVE = 2;
+    /** Smallest journal worth compacting, so a small cache isn't rewritten on every change */
+    private static final int MIN_COMPACT_ENTRIES = 1024;
+    /** How long the writer waits for more changes before writing */
+    private static final long WRITE_DELAY_MS = 1000;
 
     private static final Logger LOGGER = LogManager.getLogger(UsernameCache.class);
     private static final Marker USRCACHE = MarkerManager.getMarker("USERNAMECACHE");
 
+    private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        var thread = new Thread(r, "Forge Username Cache Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Number of entries in the journal file, only touched on the writer thread after loading */
+    private static int journalEntries;
+    private static boolean writeScheduled;
+    private static boolean compactRequested;
+
+    static
+    {
+        Runtime.getRuntime().addShutdownHook(new Thread(UsernameCache::flush, "Forge Username Cache Shutdown"));
+    }
+
     private UsernameCache() {}
 
     /**
@@ -65,8 +111,12 @@ public final class UsernameCache {
 
         if (username.equals(map.get(uuid))) return;
 
-        map.put(uuid, username);
-        save();
+        synchronized (pending)
+        {
+            map.put(uuid, username);
+            pending.put(uuid, username);
+            scheduleWrite();
+        }
     }
 
     /**
@@ -80,13 +130,15 @@ public final class UsernameCache {
     {
         Objects.requireNonNull(uuid);
 
-        if (map.remove(uuid) != null)
+        synchronized (pending)
         {
-            save();
+            if (map.remove(uuid) == null)
+                return false;
+
+            pending.put(uuid, null);
+            scheduleWrite();
             return true;
         }
-
-        return false;
     }
 
     /**
@@ -130,11 +182,15 @@ public final class UsernameCache {
     }
 
     /**
-     * Save the cache to file
+     * Save the whole cache to file, in the background
      */
     protected static void save()
     {
-        new SaveThread(gson.toJson(map)).start();
+        synchronized (pending)
+        {
+            compactRequested = true;
+            scheduleWrite();
+        }
     }
 
     /**
@@ -142,65 +198,228 @@ public final class UsernameCache {
      */
     protected static void load()
     {
-        if (!Files.exists(saveFile)) return;
+        synchronized (pending)
+        {
+            map.clear();
+            pending.clear();
+            journalEntries = 0;
+
+            if (Files.exists(saveFile))
+                loadSnapshot();
+            else if (Files.exists(legacyFile))
+                readLegacy();
+
+            if (Files.exists(journalFile))
+                loadJournal();
+        }
+    }
+
+    private static void loadSnapshot()
+    {
+        try
+        {
+            readSnapshot(saveFile, map);
+        }
+        catch (IOException e)
+        {
+            LOGGER.error(USRCACHE, "Could not read username cache file {}, ignoring it", saveFile, e);
+            map.clear();
+        }
+    }
+
+    private static void loadJournal()
+    {
+        try
+        {
+            journalEntries = readJournal(journalFile, map);
+        }
+        catch (EOFException e)
+        {
+            // A crash while appending leaves a partial entry at the end, everything before it is still good
+            LOGGER.warn(USRCACHE, "Username cache journal {} ends with a partial entry, ignoring it", journalFile);
+            compactRequested = true;
+            scheduleWrite();
+        }
+        catch (IOException e)
+        {
+            LOGGER.error(USRCACHE, "Could not read username cache journal {}, ignoring the rest of it", journalFile, e);
+            compactRequested = true;
+            scheduleWrite();
+        }
+    }
 
-        try (final BufferedReader reader = Files.newBufferedReader(saveFile, Charsets.UTF_8))
+    /**
+     * Reads the json file used by older versions. It is left as it is, the binary snapshot takes over once that has been written.
+     */
+    private static void readLegacy()
+    {
+        try (final BufferedReader reader = Files.newBufferedReader(legacyFile, StandardCharsets.UTF_8))
         {
             @SuppressWarnings("serial")
             Type type = new TypeToken<Map<UUID, String>>(){}.getType();
-            map = gson.fromJson(reader, type);
+            Map<UUID, String> legacy = gson.fromJson(reader, type);
+            // Can sometimes occur when the json file is malformed
+            if (legacy != null)
+                map.putAll(legacy);
         }
         catch (JsonSyntaxException | IOException e)
         {
-            LOGGER.error(USRCACHE,"Could not parse username cache file as valid json, deleting file {}", saveFile, e);
-            try
-            {
-                Files.delete(saveFile);
-            }
-            catch (IOException e1)
+            LOGGER.error(USRCACHE,"Could not parse username cache file as valid json, ignoring file {}", legacyFile, e);
+        }
+        compactRequested = true;
+        scheduleWrite();
+    }
+
+    /** Must be called while holding the pending lock */
+    private static void scheduleWrite()
+    {
+        if (writeScheduled)
+            return;
+
+        writeScheduled = true;
+        writer.schedule(UsernameCache::flush, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes everything that changed since the last write, compacting the journal into the snapshot if it has grown too large.
+     */
+    private static synchronized void flush()
+    {
+        Map<UUID, String> changes;
+        Map<UUID, String> snapshot = null;
+        synchronized (pending)
+        {
+            writeScheduled = false;
+            changes = new LinkedHashMap<>(pending);
+            pending.clear();
+
+            // Copied while holding the lock, so it contains exactly the changes in this batch and nothing after it
+            if (compactRequested || journalEntries + changes.size() >= Math.max(MIN_COMPACT_ENTRIES, map.size()))
             {
-                LOGGER.error(USRCACHE,"Could not delete file {}", saveFile.toString());
+                snapshot = new HashMap<>(map);
+                compactRequested = false;
             }
         }
-        finally
+
+        try
         {
-            // Can sometimes occur when the json file is malformed
-            if (map == null)
+            if (snapshot != null)
+                compact(snapshot);
+            else if (!changes.isEmpty())
+                append(changes);
+        }
+        catch (IOException e)
+        {
+            LOGGER.error(USRCACHE, "Failed to save username cache to file!", e);
+            synchronized (pending)
             {
-                map = new HashMap<>();
+                // Write the whole thing next time, the journal may be missing these changes
+                compactRequested = true;
+                scheduleWrite();
             }
         }
     }
 
+    private static void append(Map<UUID, String> changes) throws IOException
+    {
+        appendJournal(journalFile, changes);
+        journalEntries += changes.size();
+    }
+
+    private static void compact(Map<UUID, String> snapshot) throws IOException
+    {
+        writeSnapshot(saveFile, snapshot);
+
+        // The snapshot already contains everything in the journal, the legacy file is kept for older versions
+        Files.deleteIfExists(journalFile);
+        journalEntries = 0;
+    }
+
     /**
-     * Used for saving the {@link com.google.gson.Gson#toJson(Object) Gson}
-     * representation of the cache to disk
+     * Reads a snapshot written by {@link #writeSnapshot} into the map.
      */
-    private static class SaveThread extends Thread {
+    @ApiStatus.Internal
+    public static void readSnapshot(Path file, Map<UUID, String> into) throws IOException
+    {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION)
+                throw new IOException("Unknown username cache format");
 
-        /** The data that will be saved to disk */
-        private final String data;
+            int size = in.readInt();
+            for (int x = 0; x < size; x++)
+                into.put(new UUID(in.readLong(), in.readLong()), in.readUTF());
+        }
+    }
 
-        public SaveThread(String data)
+    /**
+     * Applies every entry in a journal written by {@link #appendJournal} to the map, in order.
+     *
+     * @return the number of entries read
+     * @throws EOFException if the journal ends with a partial entry, every entry before it has already been applied
+     */
+    @ApiStatus.Internal
+    public static int readJournal(Path file, Map<UUID, String> into) throws IOException
+    {
+        int entries = 0;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
         {
-            this.data = data;
+            while (true)
+            {
+                int op = in.read();
+                if (op == -1)
+                    return entries;
+
+                var uuid = new UUID(in.readLong(), in.readLong());
+                if (op == JOURNAL_SET)
+                    into.put(uuid, in.readUTF());
+                else if (op == JOURNAL_REMOVE)
+                    into.remove(uuid);
+                else
+                    throw new IOException("Unknown journal entry " + op);
+                entries++;
+            }
         }
+    }
 
-        @Override
-        public void run()
+    /**
+     * Appends the changes to the journal, a null value is a removal.
+     */
+    @ApiStatus.Internal
+    public static void appendJournal(Path file, Map<UUID, String> changes) throws IOException
+    {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND))))
         {
-            try
+            for (var entry : changes.entrySet())
             {
-                // Make sure we don't save when another thread is still saving
-                synchronized (saveFile)
-                {
-                    Files.write(saveFile, data.getBytes(StandardCharsets.UTF_8));
-                }
+                out.writeByte(entry.getValue() == null ? JOURNAL_REMOVE : JOURNAL_SET);
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                if (entry.getValue() != null)
+                    out.writeUTF(entry.getValue());
             }
-            catch (IOException e)
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the specified map, through a temporary file so a crash never leaves a partial snapshot.
+     */
+    @ApiStatus.Internal
+    public static void writeSnapshot(Path file, Map<UUID, String> snapshot) throws IOException
+    {
+        var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))
+        {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(snapshot.size());
+            for (var entry : snapshot.entrySet())
             {
-                LOGGER.error(USRCACHE, "Failed to save username cache to file!", e);
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeUTF(entry.getValue());
             }
         }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 }
@@ -39,6 +39,9 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
     private final ICapabilityProvider[] caps;
     private final INBTSerializable<Tag>[] writers;
     private final String[] names;
+    /** A copy of the tag last written by each {@link IDirtyTrackingSerializable} writer, copied again while it stays clean */
+    private final Tag[] written;
+    private final boolean allTracking;
     private final List<Runnable> listeners;
 
     public CapabilityDispatcher(Map<ResourceLocation, ICapabilityProvider> list, List<Runnable> listeners) {
@@ -72,6 +75,12 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
         caps = lstCaps.toArray(new ICapabilityProvider[lstCaps.size()]);
         writers = lstWriters.toArray(new INBTSerializable[lstWriters.size()]);
         names = lstNames.toArray(new String[lstNames.size()]);
+        written = new Tag[writers.length];
+
+        boolean tracking = true;
+        for (var writer : writers)
+            tracking &= writer instanceof IDirtyTrackingSerializable;
+        allTracking = tracking;
     }
 
 
@@ -101,16 +110,48 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
     public CompoundTag serializeNBT(HolderLookup.Provider registryAccess) {
         CompoundTag nbt = new CompoundTag();
         for (int x = 0; x < writers.length; x++)
-            nbt.put(names[x], writers[x].serializeNBT(registryAccess));
+            nbt.put(names[x], serialize(x, registryAccess));
         return nbt;
     }
 
+    private Tag serialize(int index, HolderLookup.Provider registryAccess) {
+        if (!(writers[index] instanceof IDirtyTrackingSerializable<Tag> tracking))
+            return writers[index].serializeNBT(registryAccess);
+
+        // The saved tree can be edited in place by commands, DataFixers or mods, so it never shares a tag with the cache
+        var ret = written[index];
+        if (ret == null || tracking.isDirty()) {
+            ret = tracking.serializeNBT(registryAccess);
+            written[index] = ret.copy();
+            tracking.setDirty(false);
+            return ret;
+        }
+        return ret.copy();
+    }
+
     @Override
     public void deserializeNBT(HolderLookup.Provider registryAccess, CompoundTag nbt) {
         for (int x = 0; x < writers.length; x++) {
-            if (nbt.contains(names[x]))
+            if (nbt.contains(names[x])) {
                 writers[x].deserializeNBT(registryAccess, nbt.get(names[x]));
+                written[x] = null;
+            }
+        }
+    }
+
+    /**
+     * @return false if every serializable provider implements {@link IDirtyTrackingSerializable} and none of them have changed since
+     *         they were last saved, meaning the previously saved data is still up to date
+     */
+    public boolean isDirty() {
+        if (!allTracking)
+            return true;
+
+        for (var writer : writers) {
+            if (((IDirtyTrackingSerializable<?>)writer).isDirty())
+                return true;
         }
+        return false;
     }
 
     public void invalidate() {
@@ -19,6 +19,7 @@ import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.event.AttachCapabilitiesEvent;
 import net.minecraftforge.event.ForgeEventFactory;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
@@ -61,6 +62,8 @@ public abstract class CapabilityProvider<B extends ICapabilityProviderImpl<B>> i
     }
 
     public static class BlockEntities extends CapabilityProvider<BlockEntity> {
+        private @Nullable NeighborCapabilityCache neighborCapabilities;
+
         protected BlockEntities() {
             super(false);
         }
@@ -78,6 +81,24 @@ public abstract class CapabilityProvider<B extends ICapabilityProviderImpl<B>> i
         protected boolean shouldFireAttachCapabilitiesEvent() {
             return AttachCapabilitiesEvent.BlockEntities.BUS.hasListeners();
         }
+
+        @Override
+        public void invalidateCaps() {
+            super.invalidateCaps();
+            // Unregister from the neighbors' capabilities, nothing will query them through us anymore
+            if (this.neighborCapabilities != null)
+                this.neighborCapabilities.clear();
+        }
+
+        /**
+         * The capabilities this block entity has looked up on its neighbors, created on first use.
+         */
+        @ApiStatus.Internal
+        public NeighborCapabilityCache getNeighborCapabilityCache() {
+            if (this.neighborCapabilities == null)
+                this.neighborCapabilities = new NeighborCapabilityCache();
+            return this.neighborCapabilities;
+        }
     }
 
     public static class ItemStacks extends CapabilityProvider<ItemStack> {
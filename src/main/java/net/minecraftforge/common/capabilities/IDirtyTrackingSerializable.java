@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.common.capabilities;
+
+import net.minecraft.nbt.Tag;
+import net.minecraftforge.common.util.INBTSerializable;
+
+/**
+ * Optional extension of {@link INBTSerializable} for capability providers that know when their data changes.
+ * <p>
+ * When a provider attached through {@link net.minecraftforge.event.AttachCapabilitiesEvent} implements this, its {@link CapabilityDispatcher} keeps a copy of
+ * the tag it last wrote, and saves another copy of it instead of calling {@link #serializeNBT} while the provider isn't dirty. Level capabilities
+ * are only written to disk when at least one of their providers is dirty, or doesn't implement this.
+ * <p>
+ * Providers should start out dirty, call {@code setDirty(true)} whenever their saved state changes, and must not modify a tag after
+ * returning it from {@link #serializeNBT}, as it may be saved again later.
+ *
+ * @see net.minecraft.world.level.saveddata.SavedData#setDirty(boolean)
+ */
+@SuppressWarnings("deprecation")
+public interface IDirtyTrackingSerializable<T extends Tag> extends INBTSerializable<T> {
+    /**
+     * @return true if the state of this provider has changed since it was last saved
+     */
+    boolean isDirty();
+
+    /**
+     * Called with {@code false} by the dispatcher after it has saved this provider.
+     */
+    void setDirty(boolean dirty);
+}
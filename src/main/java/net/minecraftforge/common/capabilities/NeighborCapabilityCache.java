@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.common.capabilities;
+
+import java.lang.ref.WeakReference;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.common.util.NonNullConsumer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Remembers the capabilities a block entity found on its neighbors, one per side, so things that query the same neighbor
+ * every tick, like hoppers and droppers, don't need to look up the block entity and its capability each time.
+ * <p>
+ * A cached entry is dropped as soon as the neighbor's {@link LazyOptional} is invalidated, the neighbor is removed, or
+ * the neighbor's block state changes, which is checked on every hit. Misses are not cached, so a newly placed neighbor is
+ * found on the next query. Neighbors and their capabilities are only held weakly, so a cache on a block entity that is
+ * never ticked again doesn't keep unloaded neighbors alive.
+ * <p>
+ * This is not thread safe, it is meant to be used from the owning block entity's tick.
+ */
+public final class NeighborCapabilityCache {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Entry<?>[] entries = new Entry<?>[DIRECTIONS.length];
+
+    /**
+     * Gets the capability of the block entity next to {@code pos} in the specified direction, queried from the side facing {@code pos}.
+     *
+     * @return the capability, or null if there is no block entity there or it doesn't expose the capability
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Level level, BlockPos pos, Direction direction, Capability<T> capability) {
+        int index = direction.ordinal();
+        var entry = this.entries[index];
+        if (entry != null) {
+            var value = entry.capability == capability ? entry.getValue() : null;
+            if (value != null)
+                return (T)value;
+            entry.release();
+            this.entries[index] = null;
+        }
+
+        var target = pos.relative(direction);
+        var state = level.getBlockState(target);
+        if (!state.hasBlockEntity())
+            return null;
+
+        var blockEntity = level.getBlockEntity(target);
+        if (blockEntity == null || blockEntity.isRemoved())
+            return null;
+
+        var optional = blockEntity.getCapability(capability, direction.getOpposite());
+        T value = optional.orElse(null);
+        if (value == null)
+            return null;
+
+        var created = new Entry<>(capability, blockEntity, blockEntity.getBlockState(), optional, value);
+        optional.addListener(created);
+        this.entries[index] = created;
+        return value;
+    }
+
+    /**
+     * @return the block entity that provided the last capability returned by {@link #get} for the specified direction,
+     *         or null if there was none.
+     */
+    @Nullable
+    public BlockEntity getBlockEntity(Direction direction) {
+        var entry = this.entries[direction.ordinal()];
+        return entry == null ? null : entry.target.get();
+    }
+
+    /**
+     * Forgets every cached capability.
+     */
+    public void clear() {
+        for (int x = 0; x < this.entries.length; x++) {
+            var entry = this.entries[x];
+            if (entry != null) {
+                entry.release();
+                this.entries[x] = null;
+            }
+        }
+    }
+
+    private static final class Entry<T> implements NonNullConsumer<LazyOptional<T>> {
+        private final Capability<T> capability;
+        private final WeakReference<BlockEntity> target;
+        private final BlockState state;
+        private final WeakReference<LazyOptional<T>> optional;
+        private final WeakReference<T> value;
+        private boolean valid = true;
+
+        private Entry(Capability<T> capability, BlockEntity target, BlockState state, LazyOptional<T> optional, T value) {
+            this.capability = capability;
+            this.target = new WeakReference<>(target);
+            this.state = state;
+            this.optional = new WeakReference<>(optional);
+            this.value = new WeakReference<>(value);
+        }
+
+        /**
+         * @return the cached capability, or null if the neighbor was removed, changed, or collected since it was looked up
+         */
+        @Nullable
+        private T getValue() {
+            if (!this.valid)
+                return null;
+            // Block entities update their cached state whenever the block changes, without being replaced
+            var target = this.target.get();
+            if (target == null || target.isRemoved() || target.getBlockState() != this.state)
+                return null;
+            return this.value.get();
+        }
+
+        private void release() {
+            var optional = this.optional.get();
+            if (this.valid && optional != null)
+                optional.removeListener(this);
+            this.valid = false;
+        }
+
+        @Override
+        public void accept(LazyOptional<T> optional) {
+            this.valid = false;
+        }
+    }
+}
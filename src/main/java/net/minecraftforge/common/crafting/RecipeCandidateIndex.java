@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.common.crafting;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.BlastingRecipe;
+import net.minecraft.world.item.crafting.CampfireCookingRecipe;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.RecipeInput;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.item.crafting.ShapedRecipe;
+import net.minecraft.world.item.crafting.ShapelessRecipe;
+import net.minecraft.world.item.crafting.SingleItemRecipe;
+import net.minecraft.world.item.crafting.SmeltingRecipe;
+import net.minecraft.world.item.crafting.SmokingRecipe;
+import net.minecraft.world.item.crafting.StonecutterRecipe;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Index of recipes by the items that can appear in at least one of their ingredients.
+ * <p>
+ * Looking up a recipe through {@link RecipeManager#getRecipeFor(RecipeType, RecipeInput, Level)} tests every recipe of that type in turn.
+ * This index instead narrows the search down to the recipes that could possibly accept the input's items, which is useful for machines
+ * and auto-crafters that look up recipes every tick. Use it through {@link RecipeManager#getIndexedRecipeFor(RecipeType, RecipeInput, Level)},
+ * which builds it once per reload.
+ * <p>
+ * Only recipe classes whose {@code matches} requires every item in the input to be accepted by one of their ingredients are indexed, by the
+ * items of those ingredients. Any other recipe, and any recipe with an ingredient that is not {@link Ingredient#isSimple() simple}, can't
+ * be described by its items alone and is kept in a residual list that is always tested. Candidates are tested in the same order the
+ * {@link RecipeManager} holds them, so the first match is the same recipe the manager would have found.
+ */
+@ApiStatus.Internal
+public final class RecipeCandidateIndex {
+    /** Vanilla recipes that match a single item against their one ingredient */
+    private static final Set<Class<?>> SINGLE_ITEM = Set.of(StonecutterRecipe.class, SmeltingRecipe.class, BlastingRecipe.class,
+        SmokingRecipe.class, CampfireCookingRecipe.class);
+
+    private final Map<RecipeType<?>, TypeIndex> types = new IdentityHashMap<>();
+
+    public RecipeCandidateIndex(Collection<RecipeHolder<?>> recipes) {
+        var builders = new IdentityHashMap<RecipeType<?>, TypeIndex.Builder>();
+        for (var holder : recipes)
+            builders.computeIfAbsent(holder.value().getType(), k -> new TypeIndex.Builder()).add(holder);
+
+        for (var entry : builders.entrySet())
+            this.types.put(entry.getKey(), entry.getValue().build());
+    }
+
+    /**
+     * Returns every recipe of the specified type that could accept the specified item, in the order they were loaded.
+     * This includes recipes which could not be indexed by item, so callers must still test {@link Recipe#matches(RecipeInput, Level)}.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends RecipeInput, T extends Recipe<I>> List<RecipeHolder<T>> getCandidates(RecipeType<T> type, Item item) {
+        var index = this.types.get(type);
+        if (index == null)
+            return List.of();
+
+        var byItem = index.byItem.getOrDefault(item, TypeIndex.EMPTY);
+        var residual = index.residual;
+        var ret = new ArrayList<RecipeHolder<T>>(byItem.length + residual.length);
+        int x = 0, y = 0;
+        while (x < byItem.length || y < residual.length) {
+            int next = y >= residual.length || (x < byItem.length && byItem[x] < residual[y]) ? byItem[x++] : residual[y++];
+            ret.add((RecipeHolder<T>)index.recipes[next]);
+        }
+        return ret;
+    }
+
+    /**
+     * Same result as {@link RecipeManager#getRecipeFor(RecipeType, RecipeInput, Level)}, but only tests the recipes that could accept
+     * the input's least common item, plus the residual recipes.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends RecipeInput, T extends Recipe<I>> Optional<RecipeHolder<T>> getRecipeFor(RecipeType<T> type, I input, Level level) {
+        var index = this.types.get(type);
+        if (index == null || input.isEmpty())
+            return Optional.empty();
+
+        // Every item in the input has to be accepted by one of an indexed recipe's ingredients, so the rarest item gives the shortest list
+        int[] byItem = null;
+        for (int slot = 0; slot < input.size(); slot++) {
+            ItemStack stack = input.getItem(slot);
+            if (stack.isEmpty())
+                continue;
+
+            var candidates = index.byItem.getOrDefault(stack.getItem(), TypeIndex.EMPTY);
+            if (byItem == null || candidates.length < byItem.length)
+                byItem = candidates;
+            if (byItem.length == 0)
+                break;
+        }
+
+        if (byItem == null)
+            byItem = TypeIndex.EMPTY;
+
+        var residual = index.residual;
+        int x = 0, y = 0;
+        while (x < byItem.length || y < residual.length) {
+            int next = y >= residual.length || (x < byItem.length && byItem[x] < residual[y]) ? byItem[x++] : residual[y++];
+            var holder = (RecipeHolder<T>)index.recipes[next];
+            if (holder.value().matches(input, level))
+                return Optional.of(holder);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @return the ingredients every input item has to be accepted by, or null if the recipe can't be indexed by them
+     */
+    @Nullable
+    private static List<Ingredient> getIngredients(Recipe<?> recipe) {
+        // Exact classes only, subclasses can override matches to accept anything
+        var cls = recipe.getClass();
+        if (cls == ShapedRecipe.class) {
+            var ret = new ArrayList<Ingredient>();
+            for (var ingredient : ((ShapedRecipe)recipe).getIngredients())
+                ingredient.ifPresent(ret::add);
+            return ret;
+        }
+
+        // Shapeless recipes place exactly their ingredients
+        if (cls == ShapelessRecipe.class) {
+            var placement = recipe.placementInfo();
+            return placement.isImpossibleToPlace() ? null : placement.ingredients();
+        }
+
+        if (SINGLE_ITEM.contains(cls))
+            return List.of(((SingleItemRecipe)recipe).input());
+
+        return null;
+    }
+
+    private static final class TypeIndex {
+        private static final int[] EMPTY = new int[0];
+
+        private final RecipeHolder<?>[] recipes;
+        private final Reference2ObjectMap<Item, int[]> byItem;
+        private final int[] residual;
+
+        private TypeIndex(RecipeHolder<?>[] recipes, Reference2ObjectMap<Item, int[]> byItem, int[] residual) {
+            this.recipes = recipes;
+            this.byItem = byItem;
+            this.residual = residual;
+        }
+
+        private static final class Builder {
+            private final List<RecipeHolder<?>> recipes = new ArrayList<>();
+            private final Reference2ObjectMap<Item, IntArrayList> byItem = new Reference2ObjectOpenHashMap<>();
+            private final IntArrayList residual = new IntArrayList();
+
+            private void add(RecipeHolder<?> holder) {
+                int ordinal = this.recipes.size();
+                this.recipes.add(holder);
+
+                var ingredients = getIngredients(holder.value());
+                if (ingredients == null || ingredients.isEmpty()) {
+                    this.residual.add(ordinal);
+                    return;
+                }
+
+                var items = new ReferenceOpenHashSet<Item>();
+                for (var ingredient : ingredients) {
+                    if (!ingredient.isSimple()) {
+                        this.residual.add(ordinal);
+                        return;
+                    }
+                    ingredient.items().forEach(item -> items.add(item.value()));
+                }
+
+                for (var item : items)
+                    this.byItem.computeIfAbsent(item, k -> new IntArrayList()).add(ordinal);
+            }
+
+            private TypeIndex build() {
+                var byItem = new Reference2ObjectOpenHashMap<Item, int[]>(this.byItem.size());
+                for (var entry : this.byItem.reference2ObjectEntrySet())
+                    byItem.put(entry.getKey(), entry.getValue().toIntArray());
+                return new TypeIndex(this.recipes.toArray(RecipeHolder<?>[]::new), byItem, this.residual.toIntArray());
+            }
+        }
+    }
+}
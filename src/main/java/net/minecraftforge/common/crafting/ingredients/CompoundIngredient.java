@@ -36,24 +36,43 @@ public class CompoundIngredient extends AbstractIngredient {
     }
 
     private final List<Ingredient> children;
-    private List<Holder<Item>> items;
+    private final List<Ingredient> complexChildren;
     private final boolean isSimple;
+    private volatile ItemMask items;
+    private volatile ItemMask simpleItems;
 
     private CompoundIngredient(List<Ingredient> children) {
         this.children = Collections.unmodifiableList(children);
-        this.isSimple = children.stream().allMatch(Ingredient::isSimple);
+        this.complexChildren = children.stream().filter(child -> !child.isSimple()).toList();
+        this.isSimple = this.complexChildren.isEmpty();
     }
 
     @Override
     @NotNull
     public Stream<Holder<Item>> items() {
-        if (this.items == null) {
-            var tmp = new ArrayList<Holder<Item>>();
-            for (var child : children)
-                child.items().forEach(tmp::add);
-            this.items = Collections.unmodifiableList(tmp);
+        return itemMask().items().stream();
+    }
+
+    private ItemMask itemMask() {
+        var ret = this.items;
+        if (ret == null || !ret.isValid()) {
+            ret = ItemMask.of(children.stream().flatMap(Ingredient::items));
+            this.items = ret;
         }
-        return this.items.stream();
+        return ret;
+    }
+
+    /** Items matched by the simple children, which only need their item checked */
+    private ItemMask simpleItems() {
+        if (this.isSimple)
+            return itemMask();
+
+        var ret = this.simpleItems;
+        if (ret == null || !ret.isValid()) {
+            ret = ItemMask.of(children.stream().filter(Ingredient::isSimple).flatMap(Ingredient::items));
+            this.simpleItems = ret;
+        }
+        return ret;
     }
 
     @Override
@@ -61,7 +80,10 @@ public class CompoundIngredient extends AbstractIngredient {
         if (target == null)
             return false;
 
-        for (var child : children) {
+        if (simpleItems().contains(target))
+            return true;
+
+        for (var child : complexChildren) {
             if (child.test(target))
                 return true;
         }
@@ -15,9 +15,6 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.stream.Stream;
 
 /** Ingredient that matches everything from the first ingredient that is not included in the second ingredient */
@@ -34,7 +31,9 @@ public class DifferenceIngredient extends AbstractIngredient {
 
     private final Ingredient base;
     private final Ingredient subtracted;
-    private List<Holder<Item>> items = null;
+    private volatile ItemMask items;
+    private volatile ItemMask baseItems;
+    private volatile ItemMask subtractedItems;
 
     private DifferenceIngredient(Ingredient base, Ingredient subtracted) {
         this.base = base;
@@ -45,23 +44,48 @@ public class DifferenceIngredient extends AbstractIngredient {
     public boolean test(@Nullable ItemStack stack) {
         if (stack == null || stack.isEmpty())
             return false;
-        return base.test(stack) && !subtracted.test(stack);
+
+        if (isSimple())
+            return itemMask().contains(stack);
+
+        boolean inBase = base.isSimple() ? baseItems().contains(stack) : base.test(stack);
+        if (!inBase)
+            return false;
+
+        return !(subtracted.isSimple() ? subtractedItems().contains(stack) : subtracted.test(stack));
     }
 
-    @SuppressWarnings("deprecation")
     @Override
     public Stream<Holder<Item>> items() {
-        if (this.items == null) {
-            var tmp = new ArrayList<Holder<Item>>();
-
-            this.base.items().forEach(base -> {
-                boolean match = this.subtracted.items().anyMatch(base::is);
-                if (!match)
-                    tmp.add(base);
-            });
-            this.items = Collections.unmodifiableList(tmp);
+        return itemMask().items().stream();
+    }
+
+    private ItemMask itemMask() {
+        var ret = this.items;
+        if (ret == null || !ret.isValid()) {
+            var subtracted = subtractedItems();
+            ret = baseItems().filter(item -> !subtracted.contains(item));
+            this.items = ret;
+        }
+        return ret;
+    }
+
+    private ItemMask baseItems() {
+        var ret = this.baseItems;
+        if (ret == null || !ret.isValid()) {
+            ret = ItemMask.of(base.items());
+            this.baseItems = ret;
+        }
+        return ret;
+    }
+
+    private ItemMask subtractedItems() {
+        var ret = this.subtractedItems;
+        if (ret == null || !ret.isValid()) {
+            ret = ItemMask.of(subtracted.items());
+            this.subtractedItems = ret;
         }
-        return items.stream();
+        return ret;
     }
 
     @Override
@@ -38,14 +38,19 @@ public class IntersectionIngredient extends AbstractIngredient {
     }
 
     private final List<Ingredient> children;
+    private final List<Ingredient> simpleChildren;
+    private final List<Ingredient> complexChildren;
     private final boolean isSimple;
-    private List<Holder<Item>> items = null;
+    private volatile ItemMask items;
+    private volatile ItemMask simpleItems;
 
     private IntersectionIngredient(List<Ingredient> children) {
         if (children.size() < 2)
             throw new IllegalArgumentException("Cannot create an IntersectionIngredient with one or no children");
         this.children = Collections.unmodifiableList(children);
-        this.isSimple = children.stream().allMatch(Ingredient::isSimple);
+        this.simpleChildren = children.stream().filter(Ingredient::isSimple).toList();
+        this.complexChildren = children.stream().filter(child -> !child.isSimple()).toList();
+        this.isSimple = this.complexChildren.isEmpty();
     }
 
     @Override
@@ -53,34 +58,45 @@ public class IntersectionIngredient extends AbstractIngredient {
         if (stack == null || stack.isEmpty())
             return false;
 
-        for (Ingredient ingredient : children)
+        if (!simpleChildren.isEmpty() && !simpleItems().contains(stack))
+            return false;
+
+        for (Ingredient ingredient : complexChildren)
             if (!ingredient.test(stack))
                 return false;
 
         return true;
     }
 
-    @SuppressWarnings("deprecation")
     @Override
     public Stream<Holder<Item>> items() {
-        if (this.items == null) {
-            var tmp = new ArrayList<Holder<Item>>();
-
-            children.get(0).items().forEach(base -> {
-                boolean allMatch = true;
-                for (int i = 1; i < children.size(); i++) {
-                    boolean match = children.get(i).items().anyMatch(base::is);
-                    if (!match) {
-                        allMatch = false;
-                        break;
-                    }
-                }
-                if (allMatch)
-                    tmp.add(base);
-            });
-            this.items = Collections.unmodifiableList(tmp);
+        var ret = this.items;
+        if (ret == null || !ret.isValid()) {
+            ret = intersect(children);
+            this.items = ret;
         }
-        return items.stream();
+        return ret.items().stream();
+    }
+
+    /** Items matched by every simple child, which only need their item checked */
+    private ItemMask simpleItems() {
+        var ret = this.simpleItems;
+        if (ret == null || !ret.isValid()) {
+            ret = intersect(simpleChildren);
+            this.simpleItems = ret;
+        }
+        return ret;
+    }
+
+    private static ItemMask intersect(List<Ingredient> ingredients) {
+        var others = ingredients.stream().skip(1).map(child -> ItemMask.of(child.items())).toList();
+        return ItemMask.of(ingredients.get(0).items()).filter(item -> {
+            for (var other : others) {
+                if (!other.contains(item))
+                    return false;
+            }
+            return true;
+        });
     }
 
     @Override
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.common.crafting.ingredients;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Immutable set of items packed into a bitset keyed by item registry id.
+ * <p>
+ * Composite ingredients build one of these the first time they are used after tags are bound, so testing the item only part of
+ * the ingredient is a single bit check instead of walking every child. Masks remember the tag generation they were built in, and
+ * {@link #invalidateAll()} is called whenever tags are rebound so that stale masks get rebuilt on their next use.
+ */
+public final class ItemMask {
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+    private static final long[] EMPTY = new long[0];
+
+    /** Marks every existing mask as stale, called whenever tags or registry ids change. */
+    @ApiStatus.Internal
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    @ApiStatus.Internal
+    public static ItemMask of(Stream<Holder<Item>> items) {
+        // Grab the generation first, so a rebind while we're building leaves this mask stale instead of wrongly valid
+        int generation = GENERATION.get();
+        var list = new ArrayList<Holder<Item>>();
+        var bits = EMPTY;
+        for (var holder : (Iterable<Holder<Item>>)items::iterator) {
+            int id = id(holder.value());
+            if (id < 0)
+                continue;
+
+            int index = id >>> 6;
+            if (index >= bits.length) {
+                var tmp = new long[Math.max(index + 1, bits.length * 2)];
+                System.arraycopy(bits, 0, tmp, 0, bits.length);
+                bits = tmp;
+            }
+
+            long bit = 1L << id;
+            if ((bits[index] & bit) == 0) {
+                bits[index] |= bit;
+                list.add(holder);
+            }
+        }
+        return new ItemMask(generation, Collections.unmodifiableList(list), bits);
+    }
+
+    private final int generation;
+    private final List<Holder<Item>> items;
+    private final long[] bits;
+
+    private ItemMask(int generation, List<Holder<Item>> items, long[] bits) {
+        this.generation = generation;
+        this.items = items;
+        this.bits = bits;
+    }
+
+    /** @return false if tags have been rebound since this mask was built */
+    public boolean isValid() {
+        return this.generation == GENERATION.get();
+    }
+
+    /** @return the items in this mask, without duplicates, in the order they were first seen */
+    public List<Holder<Item>> items() {
+        return this.items;
+    }
+
+    public boolean contains(ItemStack stack) {
+        return contains(stack.getItem());
+    }
+
+    public boolean contains(Item item) {
+        int id = id(item);
+        if (id < 0)
+            return false;
+        int index = id >>> 6;
+        return index < this.bits.length && (this.bits[index] & (1L << id)) != 0;
+    }
+
+    /** @return a new mask containing the items of this mask that match the filter */
+    public ItemMask filter(Predicate<Item> filter) {
+        return of(this.items.stream().filter(holder -> filter.test(holder.value())));
+    }
+
+    private static int id(Item item) {
+        return BuiltInRegistries.ITEM.getId(item);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.common.util;
+
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMaps;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Running count of the entities a {@link net.minecraft.server.level.ServerLevel} tracks, by type and by chunk, so they can be listed
+ * without walking every entity in the level.
+ * <p>
+ * Updated from the level's entity callbacks, so it holds the same entities as {@code level.getEntities()}. Entities are counted when
+ * they start being tracked, moved when they change chunks, and removed when they stop being tracked. This is only accessed from the
+ * server thread.
+ */
+@ApiStatus.Internal
+public final class EntityCensus {
+    private final Reference2ObjectOpenHashMap<EntityType<?>, Counts> types = new Reference2ObjectOpenHashMap<>();
+    private final Map<EntityType<?>, Counts> typesView = Reference2ObjectMaps.unmodifiable(types);
+    /** Chunk each entity was counted in, so moves and removals don't depend on where the entity is now */
+    private final Reference2LongOpenHashMap<Entity> counted = new Reference2LongOpenHashMap<>();
+
+    public void add(Entity entity) {
+        if (counted.containsKey(entity))
+            return;
+
+        long chunk = entity.chunkPosition().toLong();
+        counted.put(entity, chunk);
+        types.computeIfAbsent(entity.getType(), k -> new Counts()).add(chunk);
+    }
+
+    public void remove(Entity entity) {
+        if (!counted.containsKey(entity))
+            return;
+
+        long chunk = counted.removeLong(entity);
+        var counts = types.get(entity.getType());
+        counts.remove(chunk);
+        if (counts.total == 0)
+            types.remove(entity.getType());
+    }
+
+    public void move(Entity entity) {
+        if (!counted.containsKey(entity))
+            return;
+
+        long chunk = entity.chunkPosition().toLong();
+        long old = counted.put(entity, chunk);
+        if (old != chunk) {
+            var counts = types.get(entity.getType());
+            counts.remove(old);
+            counts.add(chunk);
+        }
+    }
+
+    /**
+     * @return the number of entities being tracked
+     */
+    public int size() {
+        return counted.size();
+    }
+
+    /**
+     * @return the counts for the specified type, or null if there are none in the level
+     */
+    @Nullable
+    public Counts get(EntityType<?> type) {
+        return types.get(type);
+    }
+
+    /**
+     * @return the counts of every type that has entities in the level
+     */
+    public Map<EntityType<?>, Counts> getTypes() {
+        return typesView;
+    }
+
+    public static final class Counts {
+        private final Long2IntOpenHashMap chunks = new Long2IntOpenHashMap();
+        private final Long2IntMap chunksView = Long2IntMaps.unmodifiable(chunks);
+        private int total;
+
+        private Counts() {}
+
+        private void add(long chunk) {
+            total++;
+            chunks.addTo(chunk, 1);
+        }
+
+        private void remove(long chunk) {
+            total--;
+            if (chunks.addTo(chunk, -1) == 1)
+                chunks.remove(chunk);
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * @return the number of entities of this type in each chunk, keyed by {@link net.minecraft.world.level.ChunkPos#toLong()}
+         */
+        public Long2IntMap getChunks() {
+            return chunksView;
+        }
+    }
+}
@@ -8,6 +8,7 @@ package net.minecraftforge.common.util;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.level.saveddata.SavedData;
 import net.minecraft.world.level.saveddata.SavedDataType;
+import net.minecraftforge.common.capabilities.CapabilityDispatcher;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -46,6 +47,7 @@ public class LevelCapabilityData extends SavedData {
 
     @Override
     public boolean isDirty() {
-        return true;
+        // Providers that don't track their own changes have to be saved every time
+        return this.serializable instanceof CapabilityDispatcher dispatcher ? dispatcher.isDirty() : this.serializable != null;
     }
 }
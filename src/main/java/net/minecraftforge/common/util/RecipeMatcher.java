@@ -5,13 +5,22 @@
 
 package net.minecraftforge.common.util;
 
-import java.util.BitSet;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
 import java.util.function.Predicate;
 
+/**
+ * Matches a list of inputs against a list of tests so that every input is used by exactly one test.
+ * <p>
+ * This is a maximum bipartite matching problem, solved here with Hopcroft-Karp in {@code O(E * sqrt(V))}
+ * instead of an exponential backtracking search. All working state lives in primitive arrays that are
+ * cached per thread, so the only allocation in steady state is the returned mapping.
+ */
 public class RecipeMatcher {
+    private static final int UNMATCHED = -1;
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
     /**
      * Attempts to match inputs to the specified tests. In the best way that all inputs are used by one test.
      * Will return null in any of these cases:
@@ -27,109 +36,174 @@ public class RecipeMatcher {
         if (elements != tests.size())
             return null; // There will not be a 1:1 mapping of inputs -> tests
 
-        int[] ret = new int[elements];
-        for (int x = 0; x < elements; x++)
-            ret[x] = -1;
-
-        // [UnusedInputs] [UnusedIngredients] [IngredientMatchMask]...
-        BitSet data = new BitSet((elements + 2) * elements);
-        for (int x = 0; x < elements; x++) {
-            int matched = 0;
-            int offset = (x + 2) * elements;
-            Predicate<T> test = tests.get(x);
-
-            for (int y = 0; y < elements; y++) {
-                if (data.get(y))
-                    continue;
-
-                if (test.test(inputs.get(y))) {
-                    data.set(offset + y);
-                    matched++;
+        if (elements == 0)
+            return new int[0];
+
+        var ws = WORKSPACE.get();
+        if (ws.busy)
+            ws = new Workspace(); // A predicate called back into us, don't clobber the outer match
+
+        ws.busy = true;
+        try {
+            return findMatches(ws, inputs, tests, elements);
+        } finally {
+            ws.busy = false;
+        }
+    }
+
+    private static <T> int[] findMatches(Workspace ws, List<T> inputs, List<? extends Predicate<T>> tests, int elements) {
+        ws.ensureCapacity(elements);
+
+        int[] adj = ws.adj;
+        int[] degree = ws.degree;
+        int[] inputDegree = ws.inputDegree;
+        Arrays.fill(inputDegree, 0, elements, 0);
+
+        // Build the adjacency list, test -> inputs, flattened into a single array with a stride of 'elements'
+        for (int test = 0; test < elements; test++) {
+            Predicate<T> predicate = tests.get(test);
+            int offset = test * elements;
+            int count = 0;
+
+            for (int input = 0; input < elements; input++) {
+                if (predicate.test(inputs.get(input))) {
+                    adj[offset + count++] = input;
+                    inputDegree[input]++;
                 }
             }
 
-            if (matched == 0)
-                return null; //We have an test that matched non of the inputs
+            if (count == 0)
+                return null; // We have a test that matched none of the inputs
 
-            if (matched == 1) {
-                if (!claim(ret, data, x, elements))
-                    return null; //We failed to claim this index, which means it caused something else to go to 0 matches, which makes the whole thing fail
-            }
+            degree[test] = count;
         }
 
-        if (data.nextClearBit(0) >= elements) //All items have been used, which means all tests have a match!
-            return ret;
+        for (int input = 0; input < elements; input++) {
+            if (inputDegree[input] == 0)
+                return null; // We have an input that no test wants
+        }
+
+        if (maximumMatching(ws, elements) != elements)
+            return null;
 
-        // We should be in a state where multiple tests are satisfied by multiple inputs. So we need to try a branching recursive test.
-        // However for performance reasons, we should probably make that check a sub-set of the entire graph.
-        if (backtrack(data, ret, 0, elements))
-            return ret;
+        int[] ret = new int[elements];
+        int[] testToInput = ws.testToInput;
+        for (int test = 0; test < elements; test++)
+            ret[testToInput[test]] = test;
 
-        return null; //Backtrack failed, no matches, we cry and go home now :(
+        return ret;
     }
 
-    // This is bad... need to think of a better cascade, recursion instead of stack?
-    private static boolean claim(int[] ret, BitSet data, int claimed, int elements) {
-        Queue<Integer> pending = new LinkedList<Integer>();
-        pending.add(claimed);
-
-        while (pending.peek() != null) {
-            int test = pending.poll();
-            int offset = (test + 2) * elements;
-            int used = data.nextSetBit(offset) - offset;
-
-            if (used >= elements || used < 0)
-                throw new IllegalStateException("What? We matched something, but it wasn't set in the range of this test! Test: " + test +  " Used: " + used);
-
-            data.set(used);
-            data.set(elements + test);
-            ret[used] = test;
-
-            for (int x = 0; x < elements; x++) {
-                offset = (x + 2) * elements;
-                if (data.get(offset + used) && !data.get(elements + x)) {
-                    data.clear(offset + used);
-                    int count = 0;
-                    for (int y = offset; y < offset + elements; y++)
-                        if (data.get(y))
-                            count++;
-
-                    if (count == 0)
-                        return false; //Claiming this caused another test to lose its last match..
-
-                    if (count == 1)
-                        pending.add(x);
+    /**
+     * Hopcroft-Karp: Alternate a BFS that layers the free tests by shortest augmenting path length
+     * with DFS passes that augment along vertex disjoint shortest paths, until no augmenting path exists.
+     */
+    private static int maximumMatching(Workspace ws, int elements) {
+        int[] testToInput = ws.testToInput;
+        int[] inputToTest = ws.inputToTest;
+        Arrays.fill(testToInput, 0, elements, UNMATCHED);
+        Arrays.fill(inputToTest, 0, elements, UNMATCHED);
+
+        int matched = 0;
+
+        // Greedy seed, this solves most real recipes without ever entering the main loop
+        for (int test = 0; test < elements; test++) {
+            int offset = test * elements;
+            for (int x = 0; x < ws.degree[test]; x++) {
+                int input = ws.adj[offset + x];
+                if (inputToTest[input] == UNMATCHED) {
+                    inputToTest[input] = test;
+                    testToInput[test] = input;
+                    matched++;
+                    break;
                 }
             }
         }
 
-        return true;
-    }
+        while (matched < elements && bfs(ws, elements)) {
+            for (int test = 0; test < elements; test++) {
+                if (testToInput[test] == UNMATCHED && dfs(ws, elements, test))
+                    matched++;
+            }
+        }
 
-    //We use recursion here, why? Because I feel like it. Also because we should only ever be working in data sets < 9
-    private static boolean backtrack(BitSet data, int[] ret, int start, int elements) {
-        int test = data.nextClearBit(elements + start) - elements;
-        if (test >= elements)
-            return true; //Could not find the next unused test.
+        return matched;
+    }
 
-        if (test < 0)
-            throw new IllegalStateException("This should never happen, negative test in backtrack!");
+    private static boolean bfs(Workspace ws, int elements) {
+        int[] dist = ws.dist;
+        int[] queue = ws.queue;
+        int head = 0;
+        int tail = 0;
+
+        for (int test = 0; test < elements; test++) {
+            if (ws.testToInput[test] == UNMATCHED) {
+                dist[test] = 0;
+                queue[tail++] = test;
+            } else {
+                dist[test] = INFINITY;
+            }
+        }
 
-        int offset = (test + 2) * elements;
-        for (int x = 0; x < elements; x++) {
-            if (!data.get(offset + x) || data.get(x))
-                continue;
+        boolean found = false;
+        while (head < tail) {
+            int test = queue[head++];
+            int offset = test * elements;
+            for (int x = 0; x < ws.degree[test]; x++) {
+                int next = ws.inputToTest[ws.adj[offset + x]];
+                if (next == UNMATCHED) {
+                    found = true;
+                } else if (dist[next] == INFINITY) {
+                    dist[next] = dist[test] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
 
-            data.set(x);
+        return found;
+    }
 
-            if (backtrack(data, ret, test + 1, elements)) {
-                ret[x] = test;
+    // Recursion depth is bounded by the length of the shortest augmenting path, which is at most 'elements'
+    private static boolean dfs(Workspace ws, int elements, int test) {
+        int offset = test * elements;
+        for (int x = 0; x < ws.degree[test]; x++) {
+            int input = ws.adj[offset + x];
+            int next = ws.inputToTest[input];
+            if (next == UNMATCHED || (ws.dist[next] == ws.dist[test] + 1 && dfs(ws, elements, next))) {
+                ws.inputToTest[input] = test;
+                ws.testToInput[test] = input;
                 return true;
             }
-
-            data.clear(x);
         }
 
+        ws.dist[test] = INFINITY; // Dead end, don't visit again this phase
         return false;
     }
+
+    private static class Workspace {
+        private boolean busy = false;
+        private int capacity = -1;
+        private int[] adj;
+        private int[] degree;
+        private int[] inputDegree;
+        private int[] testToInput;
+        private int[] inputToTest;
+        private int[] dist;
+        private int[] queue;
+
+        private void ensureCapacity(int elements) {
+            if (elements <= capacity)
+                return;
+
+            // Standard crafting grids are 9 slots, so start there to avoid growing for vanilla recipes
+            capacity = Math.max(elements, 9);
+            adj = new int[capacity * capacity];
+            degree = new int[capacity];
+            inputDegree = new int[capacity];
+            testToInput = new int[capacity];
+            inputToTest = new int[capacity];
+            dist = new int[capacity];
+            queue = new int[capacity];
+        }
+    }
 }
@@ -55,6 +55,9 @@ public interface BiomeModifier {
      * Modifies the information via the provided biome builder.
      * Allows mob spawns and world-gen features to be added or removed,
      * and climate and client effects to be modified.
+     * <p>
+     * When {@code -Dforge.parallelWorldgenModifiers=true} is set, different biomes are modified in parallel, so this may be called for
+     * several biomes at once from different threads. By default biomes are modified one at a time on the server thread.
      *
      * @param biome the named biome being modified (with original data readable).
      * @param phase biome modification phase. Biome modifiers apply in each phase in order of the enum constants.
@@ -55,6 +55,9 @@ public interface StructureModifier {
      * Modifies the information via the provided structure builder.
      * Allows mob spawns and world-gen features to be added or removed,
      * and climate and client effects to be modified.
+     * <p>
+     * When {@code -Dforge.parallelWorldgenModifiers=true} is set, different structures are modified in parallel, so this may be called
+     * for several structures at once from different threads. By default structures are modified one at a time on the server thread.
      *
      * @param structure the named structure being modified (with original data readable).
      * @param phase structure modification phase. Structure modifiers apply in each phase in order of the enum constants.
@@ -6,6 +6,8 @@
 package net.minecraftforge.entity;
 
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.entity.Entity;
+import net.minecraftforge.network.packets.SpawnEntity;
 
 /**
  * A interface for Entities that need extra information to be communicated
@@ -28,4 +30,14 @@ public interface IEntityAdditionalSpawnData
      * @param additionalData The packet data stream
      */
     void readSpawnData(FriendlyByteBuf additionalData);
+
+    /**
+     * The data written by {@link #writeSpawnData} is reused for every player that starts tracking this entity in the same tick.
+     * Call this if that data changes mid-tick, so players that start tracking it afterwards get the new data.
+     */
+    default void markSpawnDataDirty()
+    {
+        if (this instanceof Entity entity)
+            SpawnEntity.invalidateSpawnData(entity);
+    }
 }
@@ -115,6 +115,7 @@ import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.common.ToolAction;
 import net.minecraftforge.common.capabilities.CapabilityDispatcher;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.crafting.ingredients.ItemMask;
 import net.minecraftforge.common.util.BlockSnapshot;
 import net.minecraftforge.event.brewing.BrewingRecipeRegisterEvent;
 import net.minecraftforge.event.brewing.PlayerBrewedPotionEvent;
@@ -203,6 +204,7 @@ import net.minecraftforge.event.network.ChannelRegistrationChangeEvent;
 import net.minecraftforge.event.network.ConnectionStartEvent;
 import net.minecraftforge.event.network.GatherLoginConfigurationTasksEvent;
 import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.server.timings.ChunkTimings;
 
 @ApiStatus.Internal
 public final class ForgeEventFactory {
@@ -220,7 +222,10 @@ public final class ForgeEventFactory {
     }
 
     public static boolean onNeighborNotify(Level level, BlockPos pos, BlockState state, EnumSet<Direction> notifiedSides, boolean forceRedstoneUpdate) {
-        return NeighborNotifyEvent.BUS.post(new NeighborNotifyEvent(level, pos, state, notifiedSides, forceRedstoneUpdate));
+        long chunkTimingStart = ChunkTimings.start();
+        boolean ret = NeighborNotifyEvent.BUS.post(new NeighborNotifyEvent(level, pos, state, notifiedSides, forceRedstoneUpdate));
+        ChunkTimings.end(level, ChunkTimings.Category.EVENT, pos, chunkTimingStart);
+        return ret;
     }
 
     public static boolean doPlayerHarvestCheck(Player player, BlockState state, boolean success) {
@@ -255,7 +260,7 @@ public final class ForgeEventFactory {
      * @see PositionCheck
      */
     public static boolean checkSpawnPosition(Mob mob, ServerLevelAccessor level, EntitySpawnReason spawnType) {
-        var result = PositionCheck.BUS.fire(new PositionCheck(mob, level, spawnType, null)).getResult();
+        var result = PositionCheck.BUS.hasListeners() ? PositionCheck.BUS.fire(new PositionCheck(mob, level, spawnType, null)).getResult() : Result.DEFAULT;
         if (result == Result.DEFAULT)
             return mob.checkSpawnRules(level, spawnType) && mob.checkSpawnObstruction(level);
         return result == Result.ALLOW;
@@ -267,7 +272,7 @@ public final class ForgeEventFactory {
      * @implNote See in-line comments about custom spawn rules.
      */
     public static boolean checkSpawnPositionSpawner(Mob mob, ServerLevelAccessor level, EntitySpawnReason spawnType, SpawnData spawnData, BaseSpawner spawner) {
-        var result = PositionCheck.BUS.fire(new PositionCheck(mob, level, spawnType, null)).getResult();
+        var result = PositionCheck.BUS.hasListeners() ? PositionCheck.BUS.fire(new PositionCheck(mob, level, spawnType, null)).getResult() : Result.DEFAULT;
         if (result == Result.DEFAULT) {
             // Spawners do not evaluate Mob#checkSpawnRules if any custom rules are present. This is despite the fact that these two methods do not check the same things.
             return (spawnData.getCustomSpawnRules().isPresent() || mob.checkSpawnRules(level, spawnType)) && mob.checkSpawnObstruction(level);
@@ -344,9 +349,32 @@ public final class ForgeEventFactory {
        return event.getDroppedExperience();
     }
 
+    /**
+     * Fires {@link LivingPackSizeEvent} to get the most mobs natural spawning may spawn in one cluster.<br>
+     * If {@link net.minecraftforge.common.ForgeConfig.Server#cacheSpawnPackSizes} is enabled, the result for each entity type is reused for the rest of the tick.
+     */
     public static int getMaxSpawnPackSize(Mob entity) {
+        if (!LivingPackSizeEvent.BUS.hasListeners())
+            return entity.getMaxSpawnClusterSize();
+
+        boolean cache = PackSizeCache.isEnabled(entity);
+        if (cache) {
+            int cached = PackSizeCache.get(entity);
+            if (cached >= 0)
+                return cached;
+        }
+
         var maxCanSpawnEvent = LivingPackSizeEvent.BUS.fire(new LivingPackSizeEvent(entity));
-        return maxCanSpawnEvent.getResult() == Result.ALLOW ? maxCanSpawnEvent.getMaxPackSize() : entity.getMaxSpawnClusterSize();
+        int ret = maxCanSpawnEvent.getResult() == Result.ALLOW ? maxCanSpawnEvent.getMaxPackSize() : entity.getMaxSpawnClusterSize();
+        return cache ? PackSizeCache.put(entity, ret) : ret;
+    }
+
+    /**
+     * Fires {@link MobSpawnEvent.ClusterCheck} before natural spawning tries to spawn a cluster of mobs around the specified position.
+     * @return True if the cluster may spawn, false if a listener vetoed it.
+     */
+    public static boolean checkSpawnCluster(MobCategory category, ServerLevel level, ChunkAccess chunk, BlockPos pos) {
+        return !MobSpawnEvent.ClusterCheck.BUS.hasListeners() || !MobSpawnEvent.ClusterCheck.BUS.post(new MobSpawnEvent.ClusterCheck(category, level, chunk, pos));
     }
 
     public static Component getPlayerDisplayName(Player player, Component username) {
@@ -793,11 +821,14 @@ public final class ForgeEventFactory {
     }
 
     public static WeightedList<MobSpawnSettings.SpawnerData> getPotentialSpawns(LevelAccessor level, MobCategory category, BlockPos pos, WeightedList<MobSpawnSettings.SpawnerData> oldList) {
+        // Called for every natural spawn attempt, so don't build anything unless someone is listening
+        if (!LevelEvent.PotentialSpawns.BUS.hasListeners())
+            return oldList;
+
         var event = new LevelEvent.PotentialSpawns(level, category, pos, oldList);
         if (LevelEvent.PotentialSpawns.BUS.post(event))
             return WeightedList.of();
-        //System.out.println("List: " + oldList.unwrap() + " " + event.getSpawnerDataList());
-        return WeightedList.of(event.getSpawnerDataList());
+        return event.getWeightedList();
     }
 
     public static void onAdvancementEarned(Player player, AdvancementHolder holder) {
@@ -887,7 +918,10 @@ public final class ForgeEventFactory {
     }
 
     public static boolean onLivingTick(LivingEntity entity) {
-        return LivingEvent.LivingTickEvent.BUS.post(new LivingEvent.LivingTickEvent(entity));
+        long chunkTimingStart = ChunkTimings.start();
+        boolean ret = LivingEvent.LivingTickEvent.BUS.post(new LivingEvent.LivingTickEvent(entity));
+        ChunkTimings.end(entity.level(), ChunkTimings.Category.EVENT, entity.chunkPosition(), chunkTimingStart);
+        return ret;
     }
 
     public static @Nullable LivingFallEvent onLivingFall(LivingEntity entity, double distance, float damageMultiplier) {
@@ -962,6 +996,7 @@ public final class ForgeEventFactory {
     }
 
     public static void onTagsUpdated(RegistryAccess registryAccess, boolean fromClientPacket, boolean isIntegratedServerConnection) {
+        ItemMask.invalidateAll();
         TagsUpdatedEvent.BUS.post(new TagsUpdatedEvent(registryAccess, fromClientPacket, isIntegratedServerConnection));
     }
 
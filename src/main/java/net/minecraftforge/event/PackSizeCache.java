@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.event;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.common.ForgeConfig;
+import net.minecraftforge.event.entity.living.LivingPackSizeEvent;
+
+/**
+ * Remembers the {@link LivingPackSizeEvent} result of each {@link EntityType} for the rest of the current tick, so natural spawning
+ * fires the event once per type and level per tick instead of once per spawned mob.
+ * <p>
+ * Only used when {@link ForgeConfig.Server#cacheSpawnPackSizes} is enabled, as listeners that look at the specific entity will only
+ * see the first mob of each type. Natural spawning only happens on the server thread, so there is no synchronization.
+ */
+final class PackSizeCache {
+    private static final int MISSING = -1;
+
+    private static final Reference2IntOpenHashMap<EntityType<?>> SIZES = new Reference2IntOpenHashMap<>();
+    private static ResourceKey<Level> level;
+    private static long tick = Long.MIN_VALUE;
+
+    static {
+        SIZES.defaultReturnValue(MISSING);
+    }
+
+    private PackSizeCache() {}
+
+    static boolean isEnabled(Mob mob) {
+        return mob.level() instanceof ServerLevel serverLevel && serverLevel.getServer().isSameThread() && ForgeConfig.SERVER.cacheSpawnPackSizes();
+    }
+
+    /**
+     * @return the cached pack size for this mob's type, or {@code -1} if it hasn't been computed this tick
+     */
+    static int get(Mob mob) {
+        var current = mob.level().dimension();
+        long now = mob.level().getGameTime();
+        if (current != level || now != tick) {
+            SIZES.clear();
+            level = current;
+            tick = now;
+            return MISSING;
+        }
+        return SIZES.getInt(mob.getType());
+    }
+
+    static int put(Mob mob, int size) {
+        SIZES.put(mob.getType(), size);
+        return size;
+    }
+}
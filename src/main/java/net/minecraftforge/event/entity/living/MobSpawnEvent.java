@@ -16,11 +16,14 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.WorldGenRegion;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.DifficultyInstance;
 import net.minecraft.world.level.BaseSpawner;
+import net.minecraft.world.level.NaturalSpawner;
 import net.minecraft.world.level.ServerLevelAccessor;
+import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.storage.ValueInput;
 import net.minecraftforge.common.ForgeInternalHandler;
 import net.minecraftforge.common.MinecraftForge;
@@ -33,6 +36,7 @@ import net.minecraftforge.fml.LogicalSide;
  * This class holds all events relating to the entire flow of mob spawns.<br>
  * Currently, the events have the following flow for any given mob spawn:
  * <p>
+ * Natural spawning first fires {@link ClusterCheck} once for each position it tries to spawn a cluster of mobs around.<br>
  * Before the spawn is attempted {@link SpawnPlacementCheck} is fired, to determine if the spawn may occur based on mob-specific rules.<br>
  * After the entity is created {@link PositionCheck} is fired, to determine if the selected position is legal for the entity.<br>
  * If both checks succeeded, {@link FinalizeSpawn} is fired, which performs initialization on the newly-spawned entity.<br>
@@ -89,6 +93,63 @@ public abstract sealed class MobSpawnEvent extends MutableEvent implements Entit
         return this.z;
     }
 
+    /**
+     * This event is fired once each time {@linkplain NaturalSpawner#spawnCategoryForPosition natural spawning} picks a position to
+     * spawn a cluster of mobs of a category around, before any mob is chosen or created.<br>
+     * It lets mods veto the whole cluster in one call, instead of denying every candidate mob in {@link SpawnPlacementCheck} or {@link PositionCheck}.
+     * <p>
+     * This event is {@linkplain Cancellable cancellable}. Cancelling it skips the cluster, no further spawn events are fired for it.
+     * <p>
+     * This event is fired on the {@linkplain MinecraftForge#EVENT_BUS main Forge event bus},
+     * only on the {@linkplain LogicalSide#SERVER logical server}.
+     * @see ForgeEventFactory#checkSpawnCluster
+     */
+    public static final class ClusterCheck extends MutableEvent implements Cancellable {
+        public static final CancellableEventBus<ClusterCheck> BUS = CancellableEventBus.create(ClusterCheck.class);
+
+        private final MobCategory category;
+        private final ServerLevel level;
+        private final ChunkAccess chunk;
+        private final BlockPos pos;
+
+        @ApiStatus.Internal
+        public ClusterCheck(MobCategory category, ServerLevel level, ChunkAccess chunk, BlockPos pos) {
+            this.category = category;
+            this.level = level;
+            this.chunk = chunk;
+            this.pos = pos;
+        }
+
+        /**
+         * @return The category of mobs the cluster would be made of.
+         */
+        public MobCategory getCategory() {
+            return this.category;
+        }
+
+        /**
+         * @return The level the cluster would spawn in
+         */
+        public ServerLevel getLevel() {
+            return this.level;
+        }
+
+        /**
+         * @return The chunk containing the center of the cluster
+         */
+        public ChunkAccess getChunk() {
+            return this.chunk;
+        }
+
+        /**
+         * Mobs in the cluster are spread out randomly around this position, and may end up in neighboring chunks.
+         * @return The center of the cluster
+         */
+        public BlockPos getPos() {
+            return this.pos;
+        }
+    }
+
     /**
      * This event is fired {@linkplain SpawnPlacements#checkSpawnRules when Spawn Placements (aka Spawn Rules) are checked}, before a mob attempts to spawn.<br>
      * Spawn Placement checks include light levels, slime chunks, grass blocks for animals, and others in the same vein.<br>
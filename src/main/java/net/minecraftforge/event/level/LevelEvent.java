@@ -5,8 +5,8 @@
 
 package net.minecraftforge.event.level;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import net.minecraft.client.Minecraft;
@@ -119,19 +119,28 @@ public sealed interface LevelEvent extends InheritableEvent
         private final LevelAccessor level;
         private final MobCategory mobcategory;
         private final BlockPos pos;
-        private final List<Weighted<MobSpawnSettings.SpawnerData>> list;
-        private final @UnmodifiableView List<Weighted<MobSpawnSettings.SpawnerData>> view;
+        private final WeightedList<MobSpawnSettings.SpawnerData> original;
+        /** The original list's entries until a listener changes them, then a mutable copy */
+        private List<Weighted<MobSpawnSettings.SpawnerData>> list;
+        private boolean modified;
+        private final @UnmodifiableView List<Weighted<MobSpawnSettings.SpawnerData>> view = new AbstractList<>() {
+            @Override
+            public Weighted<MobSpawnSettings.SpawnerData> get(int index) {
+                return PotentialSpawns.this.list.get(index);
+            }
+
+            @Override
+            public int size() {
+                return PotentialSpawns.this.list.size();
+            }
+        };
 
         public PotentialSpawns(LevelAccessor level, MobCategory category, BlockPos pos, WeightedList<MobSpawnSettings.SpawnerData> oldList) {
             this.level = level;
             this.pos = pos;
             this.mobcategory = category;
-            if (!oldList.isEmpty())
-                this.list = new ArrayList<>(oldList.unwrap());
-            else
-                this.list = new ArrayList<>();
-
-            this.view = Collections.unmodifiableList(list);
+            this.original = oldList;
+            this.list = oldList.unwrap();
         }
 
         @Override
@@ -161,7 +170,7 @@ public sealed interface LevelEvent extends InheritableEvent
          * @param weight The weight for the data entry to have in the list.
          */
         public void addSpawnerData(MobSpawnSettings.SpawnerData data, int weight) {
-            this.list.add(new Weighted<>(data, weight));
+            this.mutableList().add(new Weighted<>(data, weight));
         }
 
         /**
@@ -171,7 +180,27 @@ public sealed interface LevelEvent extends InheritableEvent
          * @return {@code true} if the spawn list contained the specified element.
          */
         public boolean removeSpawnerData(MobSpawnSettings.SpawnerData data) {
-            return this.list.removeIf(weighted -> weighted.value().equals(data));
+            // Don't copy the list just to find out there was nothing to remove
+            for (var weighted : this.list) {
+                if (weighted.value().equals(data))
+                    return this.mutableList().removeIf(entry -> entry.value().equals(data));
+            }
+            return false;
+        }
+
+        /**
+         * {@return the spawn list after all listeners ran, the original list if none of them changed it}
+         */
+        public WeightedList<MobSpawnSettings.SpawnerData> getWeightedList() {
+            return this.modified ? WeightedList.of(this.list) : this.original;
+        }
+
+        private List<Weighted<MobSpawnSettings.SpawnerData>> mutableList() {
+            if (!this.modified) {
+                this.list = new ArrayList<>(this.list);
+                this.modified = true;
+            }
+            return this.list;
         }
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.fluids;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Scratch space for {@link Entity#updateFluidHeightAndDoFluidPushing(java.util.function.Predicate)}, holding the height and
+ * summed flow of every fluid type an entity touches this tick, in the order they were first found.
+ * <p>
+ * One instance is reused per thread, so entities don't allocate a map and boxed values every tick.
+ */
+@ApiStatus.Internal
+public final class EntityFluidMotion {
+    private static final ThreadLocal<EntityFluidMotion> SCRATCH = ThreadLocal.withInitial(EntityFluidMotion::new);
+
+    private FluidType[] types = new FluidType[2];
+    private double[] heights = new double[2];
+    private double[] flows = new double[2 * 3];
+    private int[] counts = new int[2];
+    private int size;
+    private boolean inUse;
+
+    private EntityFluidMotion() {}
+
+    /**
+     * Gets an empty instance for the current thread, which must be {@link #release() released} when done.
+     */
+    public static EntityFluidMotion acquire() {
+        var ret = SCRATCH.get();
+        // Something moved another entity while we were still working on one, don't clobber its data
+        if (ret.inUse)
+            return new EntityFluidMotion();
+
+        ret.inUse = true;
+        return ret;
+    }
+
+    public void release() {
+        Arrays.fill(this.types, 0, this.size, null);
+        this.size = 0;
+        this.inUse = false;
+    }
+
+    /**
+     * @return the number of fluid types found so far
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the index of the specified fluid type, adding it if it hasn't been found yet.
+     */
+    public int index(FluidType type) {
+        for (int x = 0; x < this.size; x++) {
+            if (this.types[x] == type)
+                return x;
+        }
+
+        if (this.size == this.types.length) {
+            int capacity = this.size * 2;
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.heights = Arrays.copyOf(this.heights, capacity);
+            this.flows = Arrays.copyOf(this.flows, capacity * 3);
+            this.counts = Arrays.copyOf(this.counts, capacity);
+        }
+
+        int ret = this.size++;
+        this.types[ret] = type;
+        this.heights[ret] = 0.0D;
+        this.flows[ret * 3] = 0.0D;
+        this.flows[ret * 3 + 1] = 0.0D;
+        this.flows[ret * 3 + 2] = 0.0D;
+        this.counts[ret] = 0;
+        return ret;
+    }
+
+    public FluidType getType(int index) {
+        return this.types[index];
+    }
+
+    public double getHeight(int index) {
+        return this.heights[index];
+    }
+
+    /**
+     * Raises the height of the fluid type at the specified index, if the new height is higher.
+     *
+     * @return the new height
+     */
+    public double raiseHeight(int index, double height) {
+        return this.heights[index] = Math.max(height, this.heights[index]);
+    }
+
+    /**
+     * Adds a block's flow, multiplied by {@code scale}, to the flow of the fluid type at the specified index.
+     */
+    public void addFlow(int index, Vec3 flow, double scale) {
+        this.flows[index * 3] += flow.x * scale;
+        this.flows[index * 3 + 1] += flow.y * scale;
+        this.flows[index * 3 + 2] += flow.z * scale;
+        this.counts[index]++;
+    }
+
+    /**
+     * @return the number of blocks whose flow was added for the fluid type at the specified index
+     */
+    public int getCount(int index) {
+        return this.counts[index];
+    }
+
+    /**
+     * @return the summed flow of the fluid type at the specified index
+     */
+    public Vec3 getFlow(int index) {
+        return new Vec3(this.flows[index * 3], this.flows[index * 3 + 1], this.flows[index * 3 + 2]);
+    }
+}
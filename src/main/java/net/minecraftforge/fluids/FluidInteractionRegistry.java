@@ -15,8 +15,11 @@ import net.minecraft.world.level.material.FluidState;
 import net.minecraftforge.common.ForgeMod;
 import net.minecraftforge.event.ForgeEventFactory;
 
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,10 +34,18 @@ import java.util.function.Function;
  * As such, all directions, besides {@link Direction#DOWN} is tested and then replaced.
  * Any fluids which cause a change in the down interaction must be handled in
  * {@code FlowingFluid#spreadTo} and not by this interaction manager.
+ *
+ * <p>The registered interactions are compiled into a lookup table the first time
+ * they are checked, and recompiled if any are added afterwards. Fluids without any
+ * interactions are skipped with a single lookup, and interactions created from a
+ * {@link FluidType} only compare the neighboring fluid's type instead of running a predicate.
  */
 public final class FluidInteractionRegistry
 {
     private static final Map<FluidType, List<InteractionInformation>> INTERACTIONS = new HashMap<>();
+    private static final CompiledInteraction[] NONE = new CompiledInteraction[0];
+    @Nullable
+    private static volatile Reference2ObjectMap<FluidType, CompiledInteraction[]> compiled;
 
     /**
      * Adds an interaction between a source and its surroundings.
@@ -45,6 +56,7 @@ public final class FluidInteractionRegistry
     public static synchronized void addInteraction(FluidType source, InteractionInformation interaction)
     {
         INTERACTIONS.computeIfAbsent(source, s -> new ArrayList<>()).add(interaction);
+        compiled = null;
     }
 
     /**
@@ -59,23 +71,80 @@ public final class FluidInteractionRegistry
     public static boolean canInteract(Level level, BlockPos pos)
     {
         FluidState state = level.getFluidState(pos);
+        CompiledInteraction[] interactions = getCompiled().getOrDefault(state.getFluidType(), NONE);
+        if (interactions.length == 0)
+            return false;
+
         for (Direction direction : LiquidBlock.POSSIBLE_FLOW_DIRECTIONS)
         {
             BlockPos relativePos = pos.relative(direction.getOpposite());
-            List<InteractionInformation> interactions = INTERACTIONS.getOrDefault(state.getFluidType(), Collections.emptyList());
-            for (InteractionInformation interaction : interactions)
+            FluidType relativeType = null;
+            for (CompiledInteraction interaction : interactions)
             {
-                if (interaction.predicate().test(level, pos, relativePos, state))
+                if (interaction.type() != null)
                 {
-                    interaction.interaction().interact(level, pos, relativePos, state);
-                    return true;
+                    if (relativeType == null)
+                        relativeType = level.getFluidState(relativePos).getFluidType();
+                    if (relativeType != interaction.type())
+                        continue;
                 }
+                else if (!interaction.information().predicate().test(level, pos, relativePos, state))
+                    continue;
+
+                interaction.information().interaction().interact(level, pos, relativePos, state);
+                return true;
             }
         }
 
         return false;
     }
 
+    private static Reference2ObjectMap<FluidType, CompiledInteraction[]> getCompiled()
+    {
+        Reference2ObjectMap<FluidType, CompiledInteraction[]> ret = compiled;
+        if (ret == null)
+        {
+            synchronized (FluidInteractionRegistry.class)
+            {
+                ret = compiled;
+                if (ret == null)
+                {
+                    ret = new Reference2ObjectOpenHashMap<>(INTERACTIONS.size());
+                    for (Map.Entry<FluidType, List<InteractionInformation>> entry : INTERACTIONS.entrySet())
+                    {
+                        CompiledInteraction[] interactions = new CompiledInteraction[entry.getValue().size()];
+                        for (int i = 0; i < interactions.length; i++)
+                        {
+                            InteractionInformation information = entry.getValue().get(i);
+                            FluidType type = information.predicate() instanceof IsFluidType isType ? isType.type() : null;
+                            interactions[i] = new CompiledInteraction(type, information);
+                        }
+                        ret.put(entry.getKey(), interactions);
+                    }
+                    compiled = ret;
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * An interaction along with the fluid type its neighbor must have, if that is all its predicate checks.
+     */
+    private record CompiledInteraction(@Nullable FluidType type, InteractionInformation information) {}
+
+    /**
+     * The predicate used by interactions that only check the type of the neighboring fluid.
+     */
+    private record IsFluidType(FluidType type) implements HasFluidInteraction
+    {
+        @Override
+        public boolean test(Level level, BlockPos currentPos, BlockPos relativePos, FluidState currentState)
+        {
+            return level.getFluidState(relativePos).getFluidType() == type;
+        }
+    }
+
     static
     {
         // Lava + Water = Obsidian (Source Lava) / Cobblestone (Flowing Lava)
@@ -132,7 +201,7 @@ public final class FluidInteractionRegistry
          */
         public InteractionInformation(FluidType type, Function<FluidState, BlockState> getState)
         {
-            this((level, currentPos, relativePos, currentState) -> level.getFluidState(relativePos).getFluidType() == type, getState);
+            this(new IsFluidType(type), getState);
         }
 
         /**
@@ -105,4 +105,58 @@ public interface IItemHandler
      *         false if the slot can never insert the ItemStack in any situation.
      */
     boolean isItemValid(int slot, @NotNull ItemStack stack);
+
+    /**
+     * Finds the first slot at or after {@code start} that holds any items.
+     * <p>
+     * The default implementation checks every slot with {@link #getStackInSlot(int)}. Handlers that can
+     * answer this without looking at every slot should override it.
+     * </p>
+     *
+     * @param start The first slot to check
+     * @return The first non-empty slot at or after {@code start}, or -1 if there is none
+     */
+    default int findNonEmptySlot(int start)
+    {
+        for (int slot = Math.max(start, 0); slot < getSlots(); slot++)
+        {
+            if (!getStackInSlot(slot).isEmpty())
+                return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first slot at or after {@code start} that holds no items.
+     * <p>
+     * The default implementation checks every slot with {@link #getStackInSlot(int)}. Handlers that can
+     * answer this without looking at every slot should override it.
+     * </p>
+     *
+     * @param start The first slot to check
+     * @return The first empty slot at or after {@code start}, or -1 if there is none
+     */
+    default int findEmptySlot(int start)
+    {
+        for (int slot = Math.max(start, 0); slot < getSlots(); slot++)
+        {
+            if (getStackInSlot(slot).isEmpty())
+                return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if every slot holds as many items as its {@link #getSlotLimit(int) limit} allows.
+     */
+    default boolean isFull()
+    {
+        for (int slot = 0; slot < getSlots(); slot++)
+        {
+            ItemStack stack = getStackInSlot(slot);
+            if (stack.isEmpty() || stack.getCount() < getSlotLimit(slot))
+                return false;
+        }
+        return true;
+    }
 }
@@ -16,6 +16,8 @@ import net.minecraftforge.items.wrapper.PlayerMainInvWrapper;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.Consumer;
+
 public class ItemHandlerHelper {
     @NotNull
     public static ItemStack insertItem(IItemHandler dest, @NotNull ItemStack stack, boolean simulate) {
@@ -60,10 +62,8 @@ public class ItemHandlerHelper {
             return insertItem(inventory, stack, simulate);
         }
 
-        int sizeInventory = inventory.getSlots();
-
         // go through the inventory and try to fill up already existing items
-        for (int i = 0; i < sizeInventory; i++) {
+        for (int i = inventory.findNonEmptySlot(0); i >= 0; i = inventory.findNonEmptySlot(i + 1)) {
             ItemStack slot = inventory.getStackInSlot(i);
             if (canItemStacksStack(slot, stack)) {
                 stack = inventory.insertItem(i, stack, simulate);
@@ -76,13 +76,10 @@ public class ItemHandlerHelper {
 
         // insert remainder into empty slots
         if (!stack.isEmpty()) {
-            // find empty slot
-            for (int i = 0; i < sizeInventory; i++) {
-                if (inventory.getStackInSlot(i).isEmpty()) {
-                    stack = inventory.insertItem(i, stack, simulate);
-                    if (stack.isEmpty()) {
-                        break;
-                    }
+            for (int i = inventory.findEmptySlot(0); i >= 0; i = inventory.findEmptySlot(i + 1)) {
+                stack = inventory.insertItem(i, stack, simulate);
+                if (stack.isEmpty()) {
+                    break;
                 }
             }
         }
@@ -90,6 +87,48 @@ public class ItemHandlerHelper {
         return stack;
     }
 
+    /**
+     * Moves up to {@code limit} items from one handler to another, filling up existing stacks in the destination first
+     * like {@link #insertItemStacked(IItemHandler, ItemStack, boolean)}. Only items that the destination accepts are extracted.
+     * <p>
+     * If the destination accepts less than it claimed it would, the rest is put back into the source. Anything the source
+     * won't take back either is given to {@code overflow}, usually to be dropped in the world, and no more items are moved.
+     *
+     * @param source      The handler to take items from
+     * @param destination The handler to put items into
+     * @param limit       The maximum number of items to move
+     * @param overflow    Receives items that neither handler would take
+     * @return The number of items moved
+     */
+    public static int moveItems(IItemHandler source, IItemHandler destination, int limit, Consumer<ItemStack> overflow) {
+        int moved = 0;
+        for (int slot = source.findNonEmptySlot(0); slot >= 0 && moved < limit; slot = source.findNonEmptySlot(slot + 1)) {
+            ItemStack extracted = source.extractItem(slot, limit - moved, true);
+            if (extracted.isEmpty())
+                continue;
+
+            int accepted = extracted.getCount() - insertItemStacked(destination, extracted, true).getCount();
+            if (accepted <= 0)
+                continue;
+
+            extracted = source.extractItem(slot, accepted, false);
+            ItemStack remainder = insertItemStacked(destination, extracted, false);
+            moved += extracted.getCount() - remainder.getCount();
+
+            // The destination changed its mind, put whatever is left back where it came from
+            if (!remainder.isEmpty()) {
+                remainder = source.insertItem(slot, remainder, false);
+                if (!remainder.isEmpty())
+                    remainder = insertItemStacked(source, remainder, false);
+                if (!remainder.isEmpty()) {
+                    overflow.accept(remainder);
+                    break;
+                }
+            }
+        }
+        return moved;
+    }
+
     /** giveItemToPlayer without preferred slot */
     public static void giveItemToPlayer(Player player, @NotNull ItemStack stack) {
         giveItemToPlayer(player, stack, -1);
@@ -149,13 +188,10 @@ public class ItemHandlerHelper {
             int itemsFound = 0;
             float proportion = 0.0F;
 
-            for (int j = 0; j < inv.getSlots(); ++j) {
+            for (int j = inv.findNonEmptySlot(0); j >= 0; j = inv.findNonEmptySlot(j + 1)) {
                 ItemStack itemstack = inv.getStackInSlot(j);
-
-                if (!itemstack.isEmpty()) {
-                    proportion += (float)itemstack.getCount() / (float)Math.min(inv.getSlotLimit(j), itemstack.getMaxStackSize());
-                    ++itemsFound;
-                }
+                proportion += (float)itemstack.getCount() / (float)Math.min(inv.getSlotLimit(j), itemstack.getMaxStackSize());
+                ++itemsFound;
             }
 
             proportion = proportion / (float)inv.getSlots();
@@ -19,6 +19,16 @@ import org.slf4j.Logger;
 
 import com.mojang.logging.LogUtils;
 
+import java.util.Arrays;
+
+/**
+ * A simple {@link IItemHandler} backed by a list of stacks.
+ * <p>
+ * When the handler creates its own list it also tracks which slots are occupied, so {@link #findEmptySlot(int)} and
+ * {@link #findNonEmptySlot(int)} can jump straight to a candidate slot. Stacks returned by {@link #getStackInSlot(int)}
+ * shouldn't be modified, but when one is emptied or filled in place anyway, every slot before the returned one is checked
+ * again and the tracking is corrected, so both return the same slot as a plain scan would.
+ */
 public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, INBTSerializable<CompoundTag> {
     private static final Logger LOGGER = LogUtils.getLogger();
     protected NonNullList<ItemStack> stacks;
@@ -28,7 +38,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
     }
 
     public ItemStackHandler(int size) {
-        stacks = NonNullList.withSize(size, ItemStack.EMPTY);
+        stacks = new TrackedStacks(size);
     }
 
     public ItemStackHandler(NonNullList<ItemStack> stacks) {
@@ -36,7 +46,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
     }
 
     public void setSize(int size) {
-        stacks = NonNullList.withSize(size, ItemStack.EMPTY);
+        stacks = new TrackedStacks(size);
     }
 
     @Override
@@ -135,6 +145,46 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
         return 64;
     }
 
+    @Override
+    public int findNonEmptySlot(int start) {
+        if (!(this.stacks instanceof TrackedStacks tracked))
+            return IItemHandler.super.findNonEmptySlot(start);
+
+        int slot = Math.max(start, 0);
+        while (true) {
+            int occupied = tracked.next(slot, true);
+            // Stacks may have been filled in place, so check the empty slots before the first occupied one
+            for (int empty = tracked.next(slot, false); empty >= 0 && (occupied < 0 || empty < occupied); empty = tracked.next(empty + 1, false)) {
+                if (!tracked.resync(empty))
+                    return empty;
+            }
+            if (occupied < 0 || !tracked.resync(occupied))
+                return occupied;
+            // An occupied stack was emptied in place, keep looking past it
+            slot = occupied + 1;
+        }
+    }
+
+    @Override
+    public int findEmptySlot(int start) {
+        if (!(this.stacks instanceof TrackedStacks tracked))
+            return IItemHandler.super.findEmptySlot(start);
+
+        int slot = Math.max(start, 0);
+        while (true) {
+            int empty = tracked.next(slot, false);
+            // Stacks may have been emptied in place, so check the occupied slots before the first empty one
+            for (int occupied = tracked.next(slot, true); occupied >= 0 && (empty < 0 || occupied < empty); occupied = tracked.next(occupied + 1, true)) {
+                if (tracked.resync(occupied))
+                    return occupied;
+            }
+            if (empty < 0 || tracked.resync(empty))
+                return empty;
+            // An empty stack was grown in place, keep looking past it
+            slot = empty + 1;
+        }
+    }
+
     protected int getStackLimit(int slot, @NotNull ItemStack stack) {
         return Math.min(getSlotLimit(slot), stack.getMaxStackSize());
     }
@@ -171,4 +221,68 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
 
     protected void onContentsChanged(int slot) {
     }
+
+    /**
+     * A fixed size list of stacks that keeps a bitmap of which slots are occupied, updated on every {@link #set(int, ItemStack)}.
+     */
+    private static final class TrackedStacks extends NonNullList<ItemStack> {
+        private final int size;
+        private final long[] occupied;
+
+        private TrackedStacks(int size) {
+            super(Arrays.asList(emptyStacks(size)), ItemStack.EMPTY);
+            this.size = size;
+            this.occupied = new long[(size + 63) >>> 6];
+        }
+
+        private static ItemStack[] emptyStacks(int size) {
+            var ret = new ItemStack[size];
+            Arrays.fill(ret, ItemStack.EMPTY);
+            return ret;
+        }
+
+        @Override
+        public ItemStack set(int index, ItemStack stack) {
+            var ret = super.set(index, stack);
+            if (stack.isEmpty())
+                this.occupied[index >>> 6] &= ~(1L << index);
+            else
+                this.occupied[index >>> 6] |= 1L << index;
+            return ret;
+        }
+
+        /**
+         * Updates the occupied bit of a slot whose stack may have been changed in place.
+         *
+         * @return true if the slot is empty
+         */
+        private boolean resync(int index) {
+            boolean empty = get(index).isEmpty();
+            if (empty)
+                this.occupied[index >>> 6] &= ~(1L << index);
+            else
+                this.occupied[index >>> 6] |= 1L << index;
+            return empty;
+        }
+
+        /**
+         * @return the first slot at or after {@code start} whose occupied bit matches, or -1 if there is none
+         */
+        private int next(int start, boolean occupied) {
+            if (start >= this.size)
+                return -1;
+
+            int index = start >>> 6;
+            long word = (occupied ? this.occupied[index] : ~this.occupied[index]) & (-1L << start);
+            while (true) {
+                if (word != 0) {
+                    int ret = (index << 6) + Long.numberOfTrailingZeros(word);
+                    return ret < this.size ? ret : -1;
+                }
+                if (++index == this.occupied.length)
+                    return -1;
+                word = occupied ? this.occupied[index] : ~this.occupied[index];
+            }
+        }
+    }
 }
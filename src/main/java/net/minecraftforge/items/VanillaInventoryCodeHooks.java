@@ -35,7 +35,11 @@ public class VanillaInventoryCodeHooks {
      */
     @Nullable
     public static Boolean extractHook(Level level, Hopper dest) {
-        var handler = getItemHandler(level, dest, Direction.UP).map(Pair::getKey).orElse(null);
+        IItemHandler handler;
+        if (dest instanceof HopperBlockEntity hopper)
+            handler = hopper.getNeighborCapabilityCache().get(level, hopper.getBlockPos(), Direction.UP, ForgeCapabilities.ITEM_HANDLER);
+        else
+            handler = getItemHandler(level, dest, Direction.UP).map(Pair::getKey).orElse(null);
         if (handler == null)
             return null;
 
@@ -67,12 +71,12 @@ public class VanillaInventoryCodeHooks {
      */
     public static boolean dropperInsertHook(Level level, BlockPos pos, DispenserBlockEntity dropper, int slot, @NotNull ItemStack stack) {
         var direction = level.getBlockState(pos).getValue(DropperBlock.FACING);
-        var handler = getItemHandlerPair(level, pos.relative(direction), direction.getOpposite());
-        if (handler.isEmpty())
+        var neighbors = dropper.getNeighborCapabilityCache();
+        var itemHandler = neighbors.get(level, pos, direction, ForgeCapabilities.ITEM_HANDLER);
+        if (itemHandler == null)
             return true;
 
-        var itemHandler = handler.get().getKey();
-        var destination = handler.get().getValue();
+        var destination = neighbors.getBlockEntity(direction);
 
         ItemStack dispensedStack = stack.copy().split(1);
         ItemStack remainder = putStackInInventoryAllSlots(dropper, destination, itemHandler, dispensedStack);
@@ -91,14 +95,15 @@ public class VanillaInventoryCodeHooks {
      * Copied from HopperBlockEntity#ejectItems and added capability support
      */
     public static boolean insertHook(HopperBlockEntity hopper) {
-        var handler = getItemHandler(hopper.getLevel(), hopper, hopper.getBlockState().getValue(HopperBlock.FACING));
-        if (handler.isEmpty())
+        var facing = hopper.getBlockState().getValue(HopperBlock.FACING);
+        var neighbors = hopper.getNeighborCapabilityCache();
+        var itemHandler = neighbors.get(hopper.getLevel(), hopper.getBlockPos(), facing, ForgeCapabilities.ITEM_HANDLER);
+        if (itemHandler == null)
             return false;
 
-        var itemHandler = handler.get().getKey();
-        var destination = handler.get().getValue();
+        var destination = neighbors.getBlockEntity(facing);
 
-        if (isFull(itemHandler))
+        if (itemHandler.isFull())
             return false;
 
         for (int i = 0; i < hopper.getContainerSize(); ++i) {
@@ -131,7 +136,7 @@ public class VanillaInventoryCodeHooks {
 
         if (destInventory.insertItem(slot, stack, true).isEmpty()) {
             boolean insertedItem = false;
-            boolean inventoryWasEmpty = isEmpty(destInventory);
+            boolean inventoryWasEmpty = destInventory.findNonEmptySlot(0) < 0;
 
             if (itemstack.isEmpty()) {
                 destInventory.insertItem(slot, stack, false);
@@ -165,24 +170,6 @@ public class VanillaInventoryCodeHooks {
         return getItemHandler(level, x, y, z, hopperFacing.getOpposite());
     }
 
-    private static boolean isFull(IItemHandler itemHandler) {
-        for (int slot = 0; slot < itemHandler.getSlots(); slot++) {
-            ItemStack stackInSlot = itemHandler.getStackInSlot(slot);
-            if (stackInSlot.isEmpty() || stackInSlot.getCount() < itemHandler.getSlotLimit(slot))
-                return false;
-        }
-        return true;
-    }
-
-    private static boolean isEmpty(IItemHandler itemHandler) {
-        for (int slot = 0; slot < itemHandler.getSlots(); slot++) {
-            ItemStack stackInSlot = itemHandler.getStackInSlot(slot);
-            if (stackInSlot.getCount() > 0)
-                return false;
-        }
-        return true;
-    }
-
     /**
      * Gets the IItemHandler at the given position, checking for both BlockEntities
      * and Entities. If both are present, the BlockEntity is preferred.
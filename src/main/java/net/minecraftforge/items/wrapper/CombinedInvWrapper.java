@@ -33,17 +33,21 @@ public class CombinedInvWrapper implements IItemHandlerModifiable
     // returns the handler index for the slot
     protected int getIndexForSlot(int slot)
     {
-        if (slot < 0)
+        if (slot < 0 || slot >= slotCount)
             return -1;
 
-        for (int i = 0; i < baseIndex.length; i++)
+        // baseIndex holds the end of every handler's range, find the first one past the slot
+        int low = 0;
+        int high = baseIndex.length - 1;
+        while (low < high)
         {
-            if (slot - baseIndex[i] < 0)
-            {
-                return i;
-            }
+            int mid = (low + high) >>> 1;
+            if (baseIndex[mid] > slot)
+                high = mid;
+            else
+                low = mid + 1;
         }
-        return -1;
+        return low;
     }
 
     protected IItemHandlerModifiable getHandlerFromIndex(int index)
@@ -126,4 +130,42 @@ public class CombinedInvWrapper implements IItemHandlerModifiable
         int localSlot = getSlotFromIndex(slot, index);
         return handler.isItemValid(localSlot, stack);
     }
+
+    @Override
+    public int findNonEmptySlot(int start)
+    {
+        return findSlot(start, true);
+    }
+
+    @Override
+    public int findEmptySlot(int start)
+    {
+        return findSlot(start, false);
+    }
+
+    @Override
+    public boolean isFull()
+    {
+        for (IItemHandlerModifiable handler : itemHandler)
+        {
+            if (!handler.isFull())
+                return false;
+        }
+        return true;
+    }
+
+    // asks each handler from the one holding start onwards, so they can use their own faster lookups
+    private int findSlot(int start, boolean nonEmpty)
+    {
+        start = Math.max(start, 0);
+        for (int index = getIndexForSlot(start); index >= 0 && index < itemHandler.length; index++)
+        {
+            int base = index == 0 ? 0 : baseIndex[index - 1];
+            int local = Math.max(start - base, 0);
+            int found = nonEmpty ? itemHandler[index].findNonEmptySlot(local) : itemHandler[index].findEmptySlot(local);
+            if (found >= 0)
+                return base + found;
+        }
+        return -1;
+    }
 }
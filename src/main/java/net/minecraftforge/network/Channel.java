@@ -6,6 +6,7 @@
 package net.minecraftforge.network;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -57,14 +58,19 @@ public abstract class Channel<MSG> {
 
     public abstract void encode(FriendlyByteBuf out, MSG message);
 
-    protected Packet<?> toVanillaPacket(Connection connection, MSG message) {
+    private static NetworkProtocol<?> getProtocol(Connection connection) {
         var protocol = connection.getProtocol();
-        var handler = switch (protocol) {
+        return switch (protocol) {
             case LOGIN         -> NetworkProtocol.LOGIN;
             case CONFIGURATION -> NetworkProtocol.CONFIGURATION;
             case PLAY          -> NetworkProtocol.PLAY;
             default -> throw new IllegalStateException("Unsupported protocol " + protocol.name() + " in Forge Networking Channel");
         };
+    }
+
+    protected Packet<?> toVanillaPacket(Connection connection, MSG message) {
+        var protocol = connection.getProtocol();
+        var handler = getProtocol(connection);
 
         // Login Protocol C->S packets do not contain the plugin channel name. As they are meant to be replies.
         // So fuck it lets just wrap in our own packet that DOES include the channel name
@@ -78,6 +84,35 @@ public abstract class Channel<MSG> {
         connection.send(toVanillaPacket(connection, msg));
     }
 
+    /**
+     * Sends a message that may be too large to fit in a single custom payload packet. Messages that do fit are sent as normal, larger
+     * ones are split into parts which are streamed to the remote a few at a time, so they don't hold up the rest of the connection's
+     * packets, and are reassembled before being handed to this channel's handlers.
+     * <p>
+     * The message is encoded immediately, instead of when the connection gets around to writing it. Split messages are not supported
+     * during the login phase, and require the remote to have Forge's {@code forge:split} channel.
+     *
+     * @return a future completed once the whole message has been written to the connection
+     * @throws IllegalStateException if the message needs to be split and the remote can not receive it
+     */
+    public CompletableFuture<Void> sendLarge(MSG msg, Connection connection) {
+        var protocol = getProtocol(connection);
+        if (protocol == NetworkProtocol.LOGIN) {
+            send(msg, connection);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        var direction = new NetworkDirection<>(protocol, connection.getSending());
+        var buf = PayloadSplitter.buffer(connection, direction);
+        encode(buf, msg);
+        if (PayloadSplitter.isSplit(connection, direction, buf.readableBytes()) && !PayloadSplitter.CHANNEL.isRemotePresent(connection)) {
+            var error = "Can not send " + buf.readableBytes() + " bytes on " + getName() + " as the remote does not support split payloads";
+            buf.release();
+            throw new IllegalStateException(error);
+        }
+        return PayloadSplitter.send(connection, direction, getName(msg), buf);
+    }
+
     /**
      * Send a message to the {@link PacketDistributor.PacketTarget} from a {@link PacketDistributor} instance.
      *
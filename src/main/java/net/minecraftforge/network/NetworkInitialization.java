@@ -62,7 +62,7 @@ public final class NetworkInitialization {
     public static final SimpleChannel PLAY = CONFIG;;
 
     public static void init() {
-        for (var channel : new Channel[]{ LOGIN, CONFIG, PLAY, ChannelListManager.CHANNEL})
+        for (var channel : new Channel[]{ LOGIN, CONFIG, PLAY, ChannelListManager.CHANNEL, PayloadSplitter.CHANNEL})
             LOGGER.debug(MARKER, "Registering Network {} v{}", channel.getName(), channel.getProtocolVersion());
     }
 
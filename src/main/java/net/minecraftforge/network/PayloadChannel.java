@@ -32,6 +32,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
 final class PayloadChannel extends Channel<CustomPacketPayload> {
@@ -228,6 +229,13 @@ final class PayloadChannel extends Channel<CustomPacketPayload> {
         return super.toVanillaPacket(con, message);
     }
 
+    @Override
+    public CompletableFuture<Void> sendLarge(CustomPacketPayload message, Connection con) {
+        var msg = get(message.type().id(), true);
+        this.validate(message.type().id(), con, msg.protocol(), msg.direction(), true);
+        return super.sendLarge(message, con);
+    }
+
     @Override
     ResourceLocation getName(CustomPacketPayload packet) {
         return packet.type().id();
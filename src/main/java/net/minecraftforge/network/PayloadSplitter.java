@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.network;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.jetbrains.annotations.ApiStatus;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.util.AttributeKey;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.Connection;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.common.ForgeHooks;
+import net.minecraftforge.common.util.LogicalSidedProvider;
+import net.minecraftforge.event.network.CustomPayloadEvent;
+import net.minecraftforge.fml.LogicalSide;
+
+/**
+ * Transport used by {@link Channel#sendLarge(Object, Connection)} to send payloads that are larger than vanilla allows in a single
+ * custom payload packet.
+ * <p>
+ * The message is encoded once, and then sent over the {@code forge:split} channel as a header part followed by data parts, each of
+ * which is a {@link ByteBuf#retainedSlice() retained slice} of the encoded message. Only {@link #WINDOW} parts are handed to the
+ * connection at a time, the next ones are queued on the event loop as the previous ones are written, so the packets the game sends in
+ * the meantime are interleaved with the transfer instead of waiting behind all of it.
+ * <p>
+ * The receiver copies the parts into a single buffer from the connection's allocator, which is released as soon as the target
+ * channel's handlers return. Handlers that need the data later must copy it. The amount of data being reassembled, and the number of
+ * transfers in progress, are limited per connection, and a remote that exceeds them is disconnected.
+ */
+@ApiStatus.Internal
+public final class PayloadSplitter {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Marker MARKER = MarkerManager.getMarker("SPLITTER");
+    public static final ResourceLocation NAME = ResourceLocation.fromNamespaceAndPath("forge", "split");
+    private static final AttributeKey<Reassembly> REASSEMBLY = AttributeKey.valueOf(NAME.toString());
+
+    private static final int CLIENTBOUND_MAX = 1048576;
+    private static final int SERVERBOUND_MAX = 32767;
+    /** Room for the transfer id and flags at the start of every data part */
+    private static final int PART_HEADER = 6;
+    /** Number of parts that may be waiting to be written on a connection */
+    private static final int WINDOW = 2;
+    /** Number of transfers a remote may have in progress at once */
+    private static final int MAX_TRANSFERS = 4;
+    /** Bytes being reassembled at once when receiving from a server, this is also the largest message a server can send */
+    private static final int CLIENT_MAX_PENDING = 128 * 1024 * 1024;
+    /** Bytes being reassembled at once when receiving from a client, this is also the largest message a client can send */
+    private static final int SERVER_MAX_PENDING = 16 * 1024 * 1024;
+
+    private static final byte FIRST = 1;
+    private static final byte LAST = 2;
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    static final EventNetworkChannel CHANNEL = ChannelBuilder
+        .named(NAME)
+        .optional()
+        .networkProtocolVersion(0)
+        .eventNetworkChannel()
+        .addListener(PayloadSplitter::onPart);
+
+    private PayloadSplitter() {}
+
+    /**
+     * Creates a buffer to encode a message into that will be sent on this connection, bound to the connection's registries when it is in
+     * the play protocol.
+     */
+    static FriendlyByteBuf buffer(Connection connection, NetworkDirection<?> direction) {
+        var buf = Unpooled.buffer();
+        if (direction.protocol() != NetworkProtocol.PLAY)
+            return new FriendlyByteBuf(buf);
+
+        RegistryAccess registries;
+        if (connection.getPacketListener() instanceof ServerGamePacketListenerImpl game)
+            registries = game.player.registryAccess();
+        else
+            registries = LogicalSidedProvider.CLIENTWORLD.get(LogicalSide.CLIENT).map(Level::registryAccess)
+                .orElseThrow(() -> new IllegalStateException("Can not send a play message without a client level"));
+        return new RegistryFriendlyByteBuf(buf, registries);
+    }
+
+    /**
+     * Sends an encoded message to the target channel, splitting it if it is too large for a single packet. This does not check that the
+     * remote supports split payloads, callers are expected to do that when the message needs to be split.
+     *
+     * @param data The encoded message, this takes ownership of the buffer and releases it once everything has been written
+     * @return a future completed once the last packet of the message has been written
+     */
+    public static CompletableFuture<Void> send(Connection connection, NetworkDirection<?> direction, ResourceLocation target, ByteBuf data) {
+        var transfer = new Transfer(connection, direction, target, data);
+        if (isSplit(connection, direction, data.readableBytes())) {
+            transfer.split = true;
+            transfer.scheduled = true;
+            connection.channel().eventLoop().execute(transfer::pump);
+        } else
+            connection.send(packet(direction, target, out -> out.writeBytes(data, data.readerIndex(), data.readableBytes())), transfer, true);
+        return transfer.future;
+    }
+
+    static boolean isSplit(Connection connection, NetworkDirection<?> direction, int length) {
+        return !connection.isMemoryConnection() && length > maxPayload(direction.direction());
+    }
+
+    private static int maxPayload(PacketFlow flow) {
+        return flow == PacketFlow.CLIENTBOUND ? CLIENTBOUND_MAX : SERVERBOUND_MAX;
+    }
+
+    private static <B extends FriendlyByteBuf> Packet<?> packet(NetworkDirection<B> direction, ResourceLocation name, Consumer<FriendlyByteBuf> encoder) {
+        return direction.protocol().buildPacket(direction.direction(), name, encoder::accept);
+    }
+
+    private static final class Transfer implements ChannelFutureListener {
+        private final Connection connection;
+        private final NetworkDirection<?> direction;
+        private final ResourceLocation target;
+        private final ByteBuf data;
+        private final int id = NEXT_ID.getAndIncrement() & Integer.MAX_VALUE;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private boolean split;
+        private boolean started;
+        private boolean scheduled;
+        private int inFlight;
+
+        private Transfer(Connection connection, NetworkDirection<?> direction, ResourceLocation target, ByteBuf data) {
+            this.connection = connection;
+            this.direction = direction;
+            this.target = target;
+            this.data = data;
+        }
+
+        /**
+         * Hands at most {@link #WINDOW} parts to the connection, only ever called on the event loop. Writes that the socket accepts
+         * right away complete before this returns, so the next parts are always left for a new task, which runs after anything else
+         * that was queued on the event loop in the meantime.
+         */
+        private void pump() {
+            scheduled = false;
+            var channel = connection.channel();
+            for (int sent = 0; sent < WINDOW && inFlight < WINDOW && (inFlight == 0 || channel.isWritable()); sent++) {
+                Packet<?> packet;
+                if (!started) {
+                    started = true;
+                    int total = data.readableBytes();
+                    packet = packet(direction, NAME, out -> {
+                        out.writeVarInt(id);
+                        out.writeByte(FIRST);
+                        out.writeResourceLocation(target);
+                        out.writeVarInt(total);
+                    });
+                } else if (data.isReadable()) {
+                    var part = data.readRetainedSlice(Math.min(data.readableBytes(), maxPayload(direction.direction()) - PART_HEADER));
+                    byte flags = data.isReadable() ? 0 : LAST;
+                    packet = packet(direction, NAME, out -> {
+                        out.writeVarInt(id);
+                        out.writeByte(flags);
+                        write(out, part);
+                    });
+                } else
+                    return;
+
+                inFlight++;
+                connection.send(packet, this, true);
+            }
+        }
+
+        private void write(FriendlyByteBuf out, ByteBuf part) {
+            try {
+                out.writeBytes(part, part.readerIndex(), part.readableBytes());
+            } finally {
+                part.release();
+            }
+        }
+
+        @Override
+        public void operationComplete(ChannelFuture f) {
+            inFlight--;
+            if (future.isDone())
+                return;
+
+            if (!f.isSuccess()) {
+                data.release();
+                future.completeExceptionally(f.cause());
+            } else if (!split || !data.isReadable() && inFlight == 0) {
+                data.release();
+                future.complete(null);
+            } else if (!scheduled) {
+                scheduled = true;
+                f.channel().eventLoop().execute(this::pump);
+            }
+        }
+    }
+
+    private static void onPart(CustomPayloadEvent event) {
+        var ctx = event.getSource();
+        var part = event.getPayload();
+        if (part == null)
+            return;
+
+        ctx.setPacketHandled(true);
+        var connection = ctx.getConnection();
+        var state = getReassembly(connection);
+        int id = part.readVarInt();
+        byte flags = part.readByte();
+
+        if ((flags & FIRST) != 0) {
+            var target = part.readResourceLocation();
+            int total = part.readVarInt();
+            int max = connection.getReceiving() == PacketFlow.CLIENTBOUND ? CLIENT_MAX_PENDING : SERVER_MAX_PENDING;
+            if (state.transfers.containsKey(id))
+                fail(connection, state, "Received duplicate split payload " + id);
+            else if (state.transfers.size() >= MAX_TRANSFERS)
+                fail(connection, state, "Received too many split payloads at once");
+            else if (total <= 0 || total > max - state.pending)
+                fail(connection, state, "Received split payload of " + total + " bytes for " + target + " which is over the limit of " + (max - state.pending));
+            else {
+                var buf = connection.channel().alloc().buffer(Math.min(total, CLIENTBOUND_MAX), total);
+                state.transfers.put(id, new Incoming(target, buf));
+                state.pending += total;
+            }
+            return;
+        }
+
+        var incoming = state.transfers.get(id);
+        if (incoming == null) {
+            fail(connection, state, "Received part of unknown split payload " + id);
+            return;
+        }
+
+        var buf = incoming.data();
+        int total = buf.maxCapacity();
+        if (part.readableBytes() > total - buf.writerIndex()) {
+            fail(connection, state, "Received more than " + total + " bytes for split payload " + id);
+            return;
+        }
+        buf.writeBytes(part);
+
+        if ((flags & LAST) == 0)
+            return;
+
+        state.transfers.remove(id);
+        state.pending -= total;
+        try {
+            if (buf.writerIndex() != total)
+                fail(connection, state, "Received " + buf.writerIndex() + " of " + total + " bytes for split payload " + id);
+            else if (NAME.equals(incoming.target()) || NetworkRegistry.findTarget(incoming.target()) == null)
+                LOGGER.warn(MARKER, "Received split payload for unknown channel {}", incoming.target());
+            else {
+                var payload = ForgePayload.create(incoming.target(), part.wrap(buf));
+                ForgeHooks.onCustomPayload(new CustomPayloadEvent(incoming.target(), payload, new CustomPayloadEvent.Context(connection), 0));
+            }
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static Reassembly getReassembly(Connection connection) {
+        var attr = connection.channel().attr(REASSEMBLY);
+        var ret = attr.get();
+        if (ret == null) {
+            // Parts are only ever received on the event loop, so there is no need to synchronize
+            var state = ret = new Reassembly();
+            attr.set(state);
+            connection.channel().closeFuture().addListener(f -> state.release());
+        }
+        return ret;
+    }
+
+    private static void fail(Connection connection, Reassembly state, String error) {
+        LOGGER.error(MARKER, error);
+        state.release();
+        connection.disconnect(Component.literal(error));
+    }
+
+    private record Incoming(ResourceLocation target, ByteBuf data) {}
+
+    private static final class Reassembly {
+        private final Int2ObjectMap<Incoming> transfers = new Int2ObjectOpenHashMap<>();
+        private long pending;
+
+        private void release() {
+            for (var incoming : transfers.values())
+                incoming.data().release();
+            transfers.clear();
+            pending = 0;
+        }
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.logging.log4j.MarkerManager;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -558,6 +559,13 @@ public class SimpleChannel extends Channel<Object> implements SimpleConnection<O
         return super.toVanillaPacket(con, message);
     }
 
+    @Override
+    public CompletableFuture<Void> sendLarge(Object message, Connection con) {
+        var msg = get(message);
+        super.validate(message.getClass().getName(), con, msg.protocol(), msg.direction(), true);
+        return super.sendLarge(message, con);
+    }
+
     @Override
     public void encode(FriendlyByteBuf out, Object message) {
         var msg = get(message);
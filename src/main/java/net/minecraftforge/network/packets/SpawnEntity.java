@@ -5,10 +5,14 @@
 
 package net.minecraftforge.network.packets;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -35,6 +39,14 @@ import net.minecraftforge.event.network.CustomPayloadEvent;
 // TODO: Re-write this packet into something simpler. This is literally just ClientboundAddEntityPacket with an extra byte[]
 public class SpawnEntity {
     public static final StreamCodec<RegistryFriendlyByteBuf, SpawnEntity> STREAM_CODEC = StreamCodec.ofMember(SpawnEntity::encode, SpawnEntity::decode);
+    /**
+     * Spawn data written this server tick, so every player that starts tracking an entity in the same tick gets the same bytes
+     * instead of the entity writing them again. Only touched on the server thread, and cleared at the end of every tick and when
+     * the server stops so it doesn't keep the entities, and their level, alive.
+     */
+    private static final Map<Entity, ByteBuf> SPAWN_DATA_CACHE = new IdentityHashMap<>();
+    private static int cacheTick = -1;
+
     private final Entity entity;
     private final int typeId;
     private final int entityId;
@@ -43,6 +55,9 @@ public class SpawnEntity {
     private final byte pitch, yaw, headYaw;
     private final int velX, velY, velZ;
     private final FriendlyByteBuf buf;
+    /** The entity's spawn data, written when this packet was created on the server */
+    @Nullable
+    private final ByteBuf spawnData;
 
     @ApiStatus.Internal
     public SpawnEntity(Entity e) {
@@ -64,6 +79,7 @@ public class SpawnEntity {
         this.velY = (int) (d2 * 8000.0D);
         this.velZ = (int) (d3 * 8000.0D);
         this.buf = null;
+        this.spawnData = getSpawnData(e);
     }
 
     private SpawnEntity(int typeId, int entityId, UUID uuid, double posX, double posY, double posZ, byte pitch, byte yaw, byte headYaw, int velX, int velY, int velZ, FriendlyByteBuf buf) {
@@ -81,6 +97,48 @@ public class SpawnEntity {
         this.velY = velY;
         this.velZ = velZ;
         this.buf = buf;
+        this.spawnData = null;
+    }
+
+    @Nullable
+    private static ByteBuf getSpawnData(Entity entity) {
+        if (!(entity instanceof IEntityAdditionalSpawnData additional))
+            return null;
+
+        var server = entity.level().getServer();
+        if (server == null || !server.isSameThread())
+            return writeSpawnData(additional);
+
+        if (server.getTickCount() != cacheTick) {
+            SPAWN_DATA_CACHE.clear();
+            cacheTick = server.getTickCount();
+        }
+
+        // The cached buffer is unpooled heap memory, so the slices handed out don't need to be retained or released
+        return SPAWN_DATA_CACHE.computeIfAbsent(entity, e -> writeSpawnData(additional)).slice();
+    }
+
+    private static ByteBuf writeSpawnData(IEntityAdditionalSpawnData entity) {
+        var ret = Unpooled.buffer();
+        entity.writeSpawnData(new FriendlyByteBuf(ret));
+        return ret;
+    }
+
+    @ApiStatus.Internal
+    public static void clearSpawnDataCache() {
+        SPAWN_DATA_CACHE.clear();
+        cacheTick = -1;
+    }
+
+    /**
+     * Forgets the spawn data cached for this entity in the current tick.
+     * @see IEntityAdditionalSpawnData#markSpawnDataDirty()
+     */
+    @ApiStatus.Internal
+    public static void invalidateSpawnData(Entity entity) {
+        var server = entity.level().getServer();
+        if (server != null && server.isSameThread())
+            SPAWN_DATA_CACHE.remove(entity);
     }
 
     public static void encode(SpawnEntity msg, FriendlyByteBuf buf) {
@@ -97,15 +155,11 @@ public class SpawnEntity {
         buf.writeShort(msg.velX);
         buf.writeShort(msg.velY);
         buf.writeShort(msg.velZ);
-        if (msg.entity instanceof IEntityAdditionalSpawnData entityAdditionalSpawnData) {
-            final FriendlyByteBuf spawnDataBuffer = new FriendlyByteBuf(Unpooled.buffer());
-
-            entityAdditionalSpawnData.writeSpawnData(spawnDataBuffer);
-
-            buf.writeVarInt(spawnDataBuffer.readableBytes());
-            buf.writeBytes(spawnDataBuffer);
-
-            spawnDataBuffer.release();
+        if (msg.spawnData != null) {
+            // Absolute read, the same packet may be encoded for several connections at once
+            int length = msg.spawnData.readableBytes();
+            buf.writeVarInt(length);
+            buf.writeBytes(msg.spawnData, msg.spawnData.readerIndex(), length);
         } else {
             buf.writeVarInt(0);
         }
@@ -118,12 +172,11 @@ public class SpawnEntity {
     private static FriendlyByteBuf readSpawnDataPacket(FriendlyByteBuf buf) {
         final int count = buf.readVarInt();
         if (count > 0) {
-            final FriendlyByteBuf spawnDataBuffer = new FriendlyByteBuf(Unpooled.buffer());
-            spawnDataBuffer.writeBytes(buf, count);
-            return spawnDataBuffer;
+            // Shares the received bytes instead of copying them, released by handle once the entity has read them
+            return new FriendlyByteBuf(buf.readRetainedSlice(count));
         }
 
-        return new FriendlyByteBuf(Unpooled.buffer());
+        return new FriendlyByteBuf(Unpooled.EMPTY_BUFFER);
     }
 
     public static void handle(SpawnEntity msg, CustomPayloadEvent.Context ctx) {
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.registries;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.network.syncher.EntityDataSerializer;
+import net.minecraft.util.CrudeIncrementalIntIdentityHashBiMap;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flat id table of every {@link EntityDataSerializer}, vanilla and modded, so {@link net.minecraft.network.syncher.SynchedEntityData}
+ * doesn't have to go through the vanilla map and then the Forge registry for every modded value it writes or reads.
+ * <p>
+ * The modded ids are captured whenever the {@linkplain ForgeRegistries#ENTITY_DATA_SERIALIZERS registry} is baked, which happens when
+ * it is frozen, reverted, or synced from a server. The table itself is built from them on first use, as the vanilla serializers are only
+ * reachable from {@link net.minecraft.network.syncher.EntityDataSerializers}.
+ */
+@ApiStatus.Internal
+public final class DataSerializerTable {
+    private static volatile EntityDataSerializer<?> @Nullable [] modded;
+    private static volatile @Nullable DataSerializerTable instance;
+
+    private final EntityDataSerializer<?>[] byId;
+    private final Reference2IntOpenHashMap<EntityDataSerializer<?>> toId;
+
+    private DataSerializerTable(CrudeIncrementalIntIdentityHashBiMap<EntityDataSerializer<?>> vanilla, EntityDataSerializer<?>[] modded) {
+        this.byId = Arrays.copyOf(modded, Math.max(modded.length, vanilla.size()));
+        for (int x = 0; x < vanilla.size(); x++)
+            this.byId[x] = vanilla.byId(x);
+
+        this.toId = new Reference2IntOpenHashMap<>(this.byId.length);
+        this.toId.defaultReturnValue(-1);
+        for (int x = 0; x < this.byId.length; x++) {
+            if (this.byId[x] != null)
+                this.toId.put(this.byId[x], x);
+        }
+    }
+
+    @Nullable
+    public static EntityDataSerializer<?> getSerializer(int id, CrudeIncrementalIntIdentityHashBiMap<EntityDataSerializer<?>> vanilla) {
+        var table = get(vanilla);
+        if (table != null)
+            return id >= 0 && id < table.byId.length ? table.byId[id] : null;
+
+        EntityDataSerializer<?> serializer = vanilla.byId(id);
+        if (serializer == null) {
+            // ForgeRegistries.DATA_SERIALIZERS is a deferred register now, so if this method is called too early, the registry will be null
+            var registry = (ForgeRegistry<EntityDataSerializer<?>>)ForgeRegistries.ENTITY_DATA_SERIALIZERS.get();
+            if (registry != null)
+                serializer = registry.getValue(id);
+        }
+        return serializer;
+    }
+
+    public static int getSerializerId(EntityDataSerializer<?> serializer, CrudeIncrementalIntIdentityHashBiMap<EntityDataSerializer<?>> vanilla) {
+        var table = get(vanilla);
+        if (table != null)
+            return table.toId.getInt(serializer);
+
+        int id = vanilla.getId(serializer);
+        if (id < 0) {
+            var registry = (ForgeRegistry<EntityDataSerializer<?>>)ForgeRegistries.ENTITY_DATA_SERIALIZERS.get();
+            if (registry != null)
+                id = registry.getID(serializer);
+        }
+        return id;
+    }
+
+    /**
+     * @return the table, or null if the registry isn't baked yet, in which case it has to be queried directly
+     */
+    private static @Nullable DataSerializerTable get(CrudeIncrementalIntIdentityHashBiMap<EntityDataSerializer<?>> vanilla) {
+        var ret = instance;
+        if (ret != null || modded == null)
+            return ret;
+
+        synchronized (DataSerializerTable.class) {
+            // Modded ids may have been cleared while we were waiting
+            if (instance == null && modded != null)
+                instance = new DataSerializerTable(vanilla, modded);
+            return instance;
+        }
+    }
+
+    static synchronized void bake(ForgeRegistry<EntityDataSerializer<?>> registry) {
+        int max = -1;
+        for (var serializer : registry)
+            max = Math.max(max, registry.getID(serializer));
+
+        var ids = new EntityDataSerializer<?>[max + 1];
+        for (var serializer : registry)
+            ids[registry.getID(serializer)] = serializer;
+
+        modded = ids;
+        instance = null;
+    }
+
+    static synchronized void clear() {
+        modded = null;
+        instance = null;
+    }
+}
@@ -57,6 +57,7 @@ import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.loot.IGlobalLootModifier;
 import net.minecraftforge.common.util.LogMessageAdapter;
 import net.minecraftforge.fluids.FluidType;
+import net.minecraftforge.fml.LoadingTrace;
 import net.minecraftforge.fml.ModLoader;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.StartupMessageManager;
@@ -148,7 +149,7 @@ public class GameData {
     }
 
     static RegistryBuilder<EntityDataSerializer<?>> getDataSerializersRegistryBuilder() {
-        return makeRegistry(Keys.ENTITY_DATA_SERIALIZERS, 256 /*vanilla space*/, MAX_VARINT).disableSaving().disableOverrides();
+        return makeRegistry(Keys.ENTITY_DATA_SERIALIZERS, 256 /*vanilla space*/, MAX_VARINT).disableSaving().disableOverrides().addCallback(DataSerializerCallbacks.INSTANCE);
     }
 
     static RegistryBuilder<MapCodec<? extends IGlobalLootModifier>> getGLMSerializersRegistryBuilder() {
@@ -346,7 +347,9 @@ public class GameData {
                 if (forgeRegistry != null)
                     forgeRegistry.unfreeze();
 
-                ModLoader.postEventWrapContainerInModOrder(registerEvent);
+                try (var scope = LoadingTrace.begin("registry", registryKey.location().toString())) {
+                    ModLoader.postEventWrapContainerInModOrder(registerEvent);
+                }
 
                 if (forgeRegistry != null)
                     forgeRegistry.freeze();
@@ -530,6 +533,22 @@ public class GameData {
         }
     }
 
+    private static class DataSerializerCallbacks implements ClearCallback<EntityDataSerializer<?>>, BakeCallback<EntityDataSerializer<?>> {
+        static final DataSerializerCallbacks INSTANCE = new DataSerializerCallbacks();
+
+        @Override
+        public void onClear(IForgeRegistryInternal<EntityDataSerializer<?>> owner, RegistryManager stage) {
+            if (stage == RegistryManager.ACTIVE)
+                DataSerializerTable.clear();
+        }
+
+        @Override
+        public void onBake(IForgeRegistryInternal<EntityDataSerializer<?>> owner, RegistryManager stage) {
+            if (stage == RegistryManager.ACTIVE)
+                DataSerializerTable.bake((ForgeRegistry<EntityDataSerializer<?>>)owner);
+        }
+    }
+
     private static <T> void loadRegistry(final ResourceLocation registryName, final RegistryManager from, final RegistryManager to, boolean freeze) {
         ForgeRegistry<T> fromRegistry = from.getRegistry(registryName);
         if (fromRegistry == null) {
@@ -9,8 +9,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import net.minecraft.Util;
 import net.minecraft.core.Holder;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.core.registries.Registries;
@@ -27,6 +32,7 @@ import net.minecraftforge.fml.loading.FMLEnvironment;
 import net.minecraftforge.network.ConnectionType;
 import net.minecraftforge.network.NetworkContext;
 import net.minecraftforge.network.NetworkRegistry;
+import net.minecraftforge.network.packets.SpawnEntity;
 import net.minecraftforge.registries.ForgeRegistries.Keys;
 import net.minecraftforge.server.permission.PermissionAPI;
 import org.apache.logging.log4j.LogManager;
@@ -51,6 +57,8 @@ public class ServerLifecycleHooks {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final Marker SERVERHOOKS = MarkerManager.getMarker("SERVERHOOKS");
     private static final LevelResource SERVERCONFIG = new LevelResource("serverconfig");
+    /** Applies biome and structure modifiers to different holders at once, only safe if every installed modifier supports it */
+    private static final boolean PARALLEL_MODIFIERS = Boolean.parseBoolean(System.getProperty("forge.parallelWorldgenModifiers", "false"));
     private static final AtomicBoolean allowLogins = new AtomicBoolean(false);
     private static volatile CountDownLatch exitLatch = null;
     private static MinecraftServer currentServer;
@@ -90,6 +98,7 @@ public class ServerLifecycleHooks {
     public static void handleServerStopped(final MinecraftServer server) {
         if (!server.isDedicatedServer()) GameData.revertToFrozen();
         ServerStoppedEvent.BUS.post(new ServerStoppedEvent(server));
+        SpawnEntity.clearSpawnDataCache();
         currentServer = null;
         LogicalSidedProvider.setServer(null);
         CountDownLatch latch = exitLatch;
@@ -118,8 +127,8 @@ public class ServerLifecycleHooks {
               .map(Holder::value)
               .toList();
 
-        // Apply sorted biome modifiers to each biome.
-        registries.lookupOrThrow(Registries.BIOME).listElements().forEach(biomeHolder ->
+        // Apply sorted biome modifiers to each biome, every biome is modified independently so they can be spread across threads if enabled.
+        applyModifiers(registries.lookupOrThrow(Registries.BIOME).listElements().toList(), biomeHolder ->
             biomeHolder.value().modifiableBiomeInfo().applyBiomeModifiers(biomeHolder, biomeModifiers)
         );
         // Rebuild the indexed feature list
@@ -127,11 +136,35 @@ public class ServerLifecycleHooks {
             levelStem.generator().refreshFeaturesPerStep();
         });
         // Apply sorted structure modifiers to each structure.
-        registries.lookupOrThrow(Registries.STRUCTURE).listElements().forEach(structureHolder ->
+        applyModifiers(registries.lookupOrThrow(Registries.STRUCTURE).listElements().toList(), structureHolder ->
             structureHolder.value().modifiableStructureInfo().applyStructureModifiers(structureHolder, structureModifiers)
         );
     }
 
+    private static <T> void applyModifiers(final List<Holder.Reference<T>> holders, final Consumer<Holder.Reference<T>> action) {
+        if (!PARALLEL_MODIFIERS || holders.size() < 2) {
+            holders.forEach(action);
+            return;
+        }
+
+        var futures = new CompletableFuture<?>[holders.size()];
+        for (int x = 0; x < futures.length; x++) {
+            var holder = holders.get(x);
+            futures[x] = CompletableFuture.runAsync(() -> action.accept(holder), Util.backgroundExecutor());
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            // Rethrow what the modifier threw, so crash reports look the same as when they run serially
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            if (e.getCause() instanceof Error cause)
+                throw cause;
+            throw e;
+        }
+    }
+
     //==================================================================================================================================================================================
     //==================================================================================================================================================================================
     //==================================================================================================================================================================================
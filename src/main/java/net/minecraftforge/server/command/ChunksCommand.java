@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.command;
+
+import java.text.DecimalFormat;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.DimensionArgument;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.server.timings.ChunkTimings;
+import net.minecraftforge.server.timings.ChunkTimings.Category;
+
+class ChunksCommand {
+    private static final DecimalFormat TIME_FORMAT = new DecimalFormat("#####0.000");
+    private static final int COUNT = 10;
+
+    static ArgumentBuilder<CommandSourceStack, ?> register() {
+        return Commands.literal("chunks")
+            .then(HotCommand.register());
+    }
+
+    private static class HotCommand {
+        static ArgumentBuilder<CommandSourceStack, ?> register() {
+            return Commands.literal("hot")
+                .requires(cs->cs.hasPermission(2)) //permission
+                .then(Commands.literal("start")
+                    .then(Commands.argument("duration", IntegerArgumentType.integer(1))
+                        .executes(ctx -> {
+                            int duration = IntegerArgumentType.getInteger(ctx, "duration");
+                            ChunkTimings.enable(duration, ctx.getSource().getServer().getTickCount());
+                            ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.chunks.hot.enabled", duration), true);
+                            return 0;
+                        })
+                    )
+                )
+                .then(Commands.literal("stop")
+                    .executes(ctx -> {
+                        ChunkTimings.disable(ctx.getSource().getServer().getTickCount());
+                        ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.chunks.hot.stopped"), true);
+                        return 0;
+                    })
+                )
+                .then(Commands.argument("dim", DimensionArgument.dimension())
+                    .executes(ctx -> execute(ctx.getSource(), DimensionArgument.getDimension(ctx, "dim").dimension()))
+                )
+                .executes(ctx -> execute(ctx.getSource(), ctx.getSource().getLevel().dimension()));
+        }
+
+        private static int execute(CommandSourceStack source, ResourceKey<Level> dim) {
+            var slowest = ChunkTimings.getSlowest(dim, COUNT);
+            int ticks = Math.max(1, ChunkTimings.getRecordedTicks(source.getServer().getTickCount()));
+            if (slowest.isEmpty()) {
+                source.sendSuccess(() -> Component.translatable("commands.forge.chunks.hot.no_data", dim.location().toString()), true);
+                return 0;
+            }
+
+            source.sendSuccess(() -> Component.translatable("commands.forge.chunks.hot.header", dim.location().toString(), ticks), true);
+            for (var timing : slowest) {
+                var pos = timing.pos();
+                source.sendSuccess(() -> Component.translatable("commands.forge.chunks.hot.entry", pos.x, pos.z,
+                    format(timing.getTotal(), ticks),
+                    format(timing.get(Category.ENTITY), ticks),
+                    format(timing.get(Category.BLOCK_ENTITY), ticks),
+                    format(timing.get(Category.RANDOM_TICK), ticks),
+                    format(timing.get(Category.SCHEDULED_TICK), ticks),
+                    format(timing.get(Category.EVENT), ticks)
+                ), true);
+            }
+            return slowest.size();
+        }
+
+        /** Average milliseconds per tick */
+        private static String format(long nanos, int ticks) {
+            return TIME_FORMAT.format(nanos / 1_000_000.0 / ticks);
+        }
+    }
+}
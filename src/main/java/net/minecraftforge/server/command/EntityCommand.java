@@ -5,33 +5,43 @@
 
 package net.minecraftforge.server.command;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import com.google.common.collect.Maps;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
 import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
 
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import net.minecraft.ChatFormatting;
+import net.minecraft.Util;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.commands.arguments.DimensionArgument;
+import net.minecraft.network.chat.ClickEvent;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.common.util.EntityCensus;
 import net.minecraftforge.registries.ForgeRegistries;
 
-import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
 class EntityCommand
@@ -47,6 +57,8 @@ class EntityCommand
         private static final SimpleCommandExceptionType INVALID_FILTER = new SimpleCommandExceptionType(Component.translatable("commands.forge.entity.list.invalid"));
         private static final DynamicCommandExceptionType INVALID_DIMENSION = new DynamicCommandExceptionType(dim -> Component.translatable("commands.forge.entity.list.invalidworld", dim));
         private static final SimpleCommandExceptionType NO_ENTITIES = new SimpleCommandExceptionType(Component.translatable("commands.forge.entity.list.none"));
+        private static final DynamicCommandExceptionType EXPORT_FAILED = new DynamicCommandExceptionType(error -> Component.translatable("commands.forge.entity.list.export_failed", error));
+        private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
         static ArgumentBuilder<CommandSourceStack, ?> register()
         {
             return Commands.literal("list")
@@ -54,18 +66,21 @@ class EntityCommand
                 .then(Commands.argument("filter", StringArgumentType.string())
                     .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(ForgeRegistries.ENTITY_TYPES.getKeys().stream().map(ResourceLocation::toString).map(StringArgumentType::escapeIfRequired), builder))
                     .then(Commands.argument("dim", DimensionArgument.dimension())
-                        .executes(ctx -> execute(ctx.getSource(), StringArgumentType.getString(ctx, "filter"), DimensionArgument.getDimension(ctx, "dim").dimension()))
+                        .then(Commands.literal("export")
+                            .executes(ctx -> execute(ctx.getSource(), StringArgumentType.getString(ctx, "filter"), DimensionArgument.getDimension(ctx, "dim").dimension(), true))
+                        )
+                        .executes(ctx -> execute(ctx.getSource(), StringArgumentType.getString(ctx, "filter"), DimensionArgument.getDimension(ctx, "dim").dimension(), false))
                     )
-                    .executes(ctx -> execute(ctx.getSource(), StringArgumentType.getString(ctx, "filter"), ctx.getSource().getLevel().dimension()))
+                    .executes(ctx -> execute(ctx.getSource(), StringArgumentType.getString(ctx, "filter"), ctx.getSource().getLevel().dimension(), false))
                 )
-                .executes(ctx -> execute(ctx.getSource(), "*", ctx.getSource().getLevel().dimension()));
+                .executes(ctx -> execute(ctx.getSource(), "*", ctx.getSource().getLevel().dimension(), false));
         }
 
-        private static int execute(CommandSourceStack sender, String filter, ResourceKey<Level> dim) throws CommandSyntaxException
+        private static int execute(CommandSourceStack sender, String filter, ResourceKey<Level> dim, boolean export) throws CommandSyntaxException
         {
-            final String cleanFilter = filter.replace("?", ".?").replace("*", ".*?");
+            final Pattern pattern = Pattern.compile(filter.replace("?", ".?").replace("*", ".*?"));
 
-            Set<ResourceLocation> names = ForgeRegistries.ENTITY_TYPES.getKeys().stream().filter(n -> n.toString().matches(cleanFilter)).collect(Collectors.toSet());
+            Set<ResourceLocation> names = ForgeRegistries.ENTITY_TYPES.getKeys().stream().filter(n -> pattern.matcher(n.toString()).matches()).collect(Collectors.toSet());
 
             if (names.isEmpty())
                 throw INVALID_FILTER.create();
@@ -74,65 +89,115 @@ class EntityCommand
             if (level == null)
                 throw INVALID_DIMENSION.create(dim);
 
-            Map<ResourceLocation, MutablePair<Integer, Map<ChunkPos, Integer>>> list = Maps.newHashMap();
-            level.getEntities().getAll().forEach(e -> {
-                MutablePair<Integer, Map<ChunkPos, Integer>> info = list.computeIfAbsent(ForgeRegistries.ENTITY_TYPES.getKey(e.getType()), k -> MutablePair.of(0, Maps.newHashMap()));
-                ChunkPos chunk = new ChunkPos(e.blockPosition());
-                info.left++;
-                info.right.put(chunk, info.right.getOrDefault(chunk, 0) + 1);
+            // Answered from the counts the level keeps as entities are added, moved, and removed, instead of walking every entity
+            List<Pair<ResourceLocation, EntityCensus.Counts>> matched = new ArrayList<>();
+            level.getEntityCensus().getTypes().forEach((type, counts) -> {
+                ResourceLocation key = ForgeRegistries.ENTITY_TYPES.getKey(type);
+                if (names.contains(key))
+                    matched.add(Pair.of(key, counts));
             });
 
+            if (matched.isEmpty())
+                throw NO_ENTITIES.create();
+
+            int ret;
             if (names.size() == 1)
             {
-                ResourceLocation name = names.iterator().next();
-                Pair<Integer, Map<ChunkPos, Integer>> info = list.get(name);
-                if (info == null)
-                    throw NO_ENTITIES.create();
-
-                sender.sendSuccess(() -> Component.translatable("commands.forge.entity.list.single.header", name.toString(), info.getLeft()), false);
-                List<Map.Entry<ChunkPos, Integer>> toSort = new ArrayList<>();
-                toSort.addAll(info.getRight().entrySet());
-                toSort.sort((a, b) -> {
-                    if (Objects.equals(a.getValue(), b.getValue()))
-                        return a.getKey().toString().compareTo(b.getKey().toString());
-                    else
-                        return b.getValue() - a.getValue();
-                });
+                ResourceLocation name = matched.get(0).getLeft();
+                EntityCensus.Counts info = matched.get(0).getRight();
 
-                long limit = 10;
-                for (Map.Entry<ChunkPos, Integer> e : toSort)
+                sender.sendSuccess(() -> Component.translatable("commands.forge.entity.list.single.header", name.toString(), info.getTotal()), false);
+                long[] chunks = sortedChunks(info);
+                for (int x = 0; x < chunks.length && x < 10; x++)
                 {
-                    if (limit-- == 0) break;
-                    sender.sendSuccess(() -> Component.literal("  " + e.getValue() + ": " + e.getKey().x + ", " + e.getKey().z), false);
+                    long chunk = chunks[x];
+                    int count = info.getChunks().get(chunk);
+                    sender.sendSuccess(() -> Component.literal("  " + count + ": " + ChunkPos.getX(chunk) + ", " + ChunkPos.getZ(chunk)), false);
                 }
-                return toSort.size();
+                ret = chunks.length;
             }
             else
             {
-
-                List<Pair<ResourceLocation, Integer>> info = new ArrayList<>();
-                list.forEach((key, value) -> {
-                    if (names.contains(key))
-                    {
-                        Pair<ResourceLocation, Integer> of = Pair.of(key, value.left);
-                        info.add(of);
-                    }
-                });
-                info.sort((a, b) -> {
-                    if (Objects.equals(a.getRight(), b.getRight()))
-                        return a.getKey().toString().compareTo(b.getKey().toString());
+                matched.sort((a, b) -> {
+                    if (a.getRight().getTotal() == b.getRight().getTotal())
+                        return a.getLeft().toString().compareTo(b.getLeft().toString());
                     else
-                        return b.getRight() - a.getRight();
+                        return b.getRight().getTotal() - a.getRight().getTotal();
                 });
 
-                if (info.isEmpty())
-                    throw NO_ENTITIES.create();
-
-                int count = info.stream().mapToInt(Pair::getRight).sum();
+                int count = matched.stream().mapToInt(e -> e.getRight().getTotal()).sum();
                 sender.sendSuccess(() -> Component.translatable("commands.forge.entity.list.multiple.header", count), false);
-                info.forEach(e -> sender.sendSuccess(() -> Component.literal("  " + e.getValue() + ": " + e.getKey()), false));
-                return info.size();
+                matched.forEach(e -> sender.sendSuccess(() -> Component.literal("  " + e.getRight().getTotal() + ": " + e.getLeft()), false));
+                ret = matched.size();
+            }
+
+            if (export)
+                export(sender, dim, matched);
+            return ret;
+        }
+
+        /**
+         * Chunks with entities of this type, most entities first
+         */
+        private static long[] sortedChunks(EntityCensus.Counts info)
+        {
+            Long2IntMap counts = info.getChunks();
+            long[] chunks = counts.keySet().toLongArray();
+            LongArrays.quickSort(chunks, (a, b) -> {
+                int diff = counts.get(b) - counts.get(a);
+                if (diff != 0)
+                    return diff;
+                int x = Integer.compare(ChunkPos.getX(a), ChunkPos.getX(b));
+                return x != 0 ? x : Integer.compare(ChunkPos.getZ(a), ChunkPos.getZ(b));
+            });
+            return chunks;
+        }
+
+        private static void export(CommandSourceStack sender, ResourceKey<Level> dim, List<Pair<ResourceLocation, EntityCensus.Counts>> matched) throws CommandSyntaxException
+        {
+            JsonArray types = new JsonArray();
+            int total = 0;
+            for (Pair<ResourceLocation, EntityCensus.Counts> e : matched)
+            {
+                JsonArray chunks = new JsonArray();
+                for (long chunk : sortedChunks(e.getRight()))
+                {
+                    JsonObject obj = new JsonObject();
+                    obj.addProperty("x", ChunkPos.getX(chunk));
+                    obj.addProperty("z", ChunkPos.getZ(chunk));
+                    obj.addProperty("count", e.getRight().getChunks().get(chunk));
+                    chunks.add(obj);
+                }
+
+                JsonObject type = new JsonObject();
+                type.addProperty("type", e.getLeft().toString());
+                type.addProperty("count", e.getRight().getTotal());
+                type.add("chunks", chunks);
+                types.add(type);
+                total += e.getRight().getTotal();
             }
+
+            JsonObject root = new JsonObject();
+            root.addProperty("dimension", dim.location().toString());
+            root.addProperty("total", total);
+            root.add("types", types);
+
+            Path file = sender.getServer().getServerDirectory().resolve("debug").resolve("entities-" + dim.location().toDebugFileName() + "-" + Util.getFilenameFormattedDateTime() + ".json");
+            try
+            {
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, GSON.toJson(root));
+            }
+            catch (IOException e)
+            {
+                throw EXPORT_FAILED.create(e.getMessage());
+            }
+
+            String path = file.toAbsolutePath().toString();
+            sender.sendSuccess(() -> Component.translatable("commands.forge.entity.list.exported",
+                Component.literal(file.getFileName().toString()).withStyle(ChatFormatting.UNDERLINE)
+                    .withStyle(style -> style.withClickEvent(new ClickEvent.OpenFile(path)))
+            ), false);
         }
     }
 
@@ -17,6 +17,7 @@ public class ForgeCommand
             LiteralArgumentBuilder.<CommandSourceStack>literal("forge")
             .then(TPSCommand.register())
             .then(TrackCommand.register())
+            .then(ChunksCommand.register())
             .then(EntityCommand.register())
             .then(GenerateCommand.register())
             .then(DimensionsCommand.register())
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.permission;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.server.permission.handler.IPermissionHandler;
+import net.minecraftforge.server.permission.nodes.PermissionDynamicContext;
+import net.minecraftforge.server.permission.nodes.PermissionNode;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the results of another {@link IPermissionHandler} for a short time, so permissions that are checked every tick
+ * or for every packet don't go through an expensive handler every time.
+ *
+ * <p>Results are cached by player, node and dynamic context, for the configured time to live. Forge invalidates a player's
+ * results when they log out or their op level changes. Permission handlers whose results change for other reasons should call
+ * {@link PermissionAPI#invalidateCache(UUID)} or {@link PermissionAPI#invalidateCache()} when they do.</p>
+ */
+public final class CachingPermissionHandler implements IPermissionHandler
+{
+    /** How many new entries are added between sweeps for expired ones */
+    private static final int SWEEP_INTERVAL = 4096;
+
+    private final IPermissionHandler delegate;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<Key, Entry<?>> cache = new ConcurrentHashMap<>();
+    private final AtomicInteger untilSweep = new AtomicInteger(SWEEP_INTERVAL);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingPermissionHandler(IPermissionHandler delegate, long ttl, TimeUnit unit)
+    {
+        this.delegate = delegate;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * {@return the handler that actually resolves permissions}
+     */
+    public IPermissionHandler getDelegate()
+    {
+        return delegate;
+    }
+
+    @Override
+    public ResourceLocation getIdentifier()
+    {
+        return delegate.getIdentifier();
+    }
+
+    @Override
+    public Set<PermissionNode<?>> getRegisteredNodes()
+    {
+        return delegate.getRegisteredNodes();
+    }
+
+    @Override
+    public <T> T getPermission(ServerPlayer player, PermissionNode<T> node, PermissionDynamicContext<?>... context)
+    {
+        var key = new Key(player.getUUID(), true, node, context.length == 0 ? List.of() : Arrays.asList(context.clone()));
+        Entry<T> cached = lookup(key);
+        if (cached != null)
+            return cached.value();
+
+        return store(key, delegate.getPermission(player, node, context));
+    }
+
+    @Override
+    public <T> T getOfflinePermission(UUID player, PermissionNode<T> node, PermissionDynamicContext<?>... context)
+    {
+        var key = new Key(player, false, node, context.length == 0 ? List.of() : Arrays.asList(context.clone()));
+        Entry<T> cached = lookup(key);
+        if (cached != null)
+            return cached.value();
+
+        return store(key, delegate.getOfflinePermission(player, node, context));
+    }
+
+    /**
+     * Forgets every cached result.
+     */
+    public void invalidate()
+    {
+        cache.clear();
+    }
+
+    /**
+     * Forgets every cached result for the specified player.
+     */
+    public void invalidate(UUID player)
+    {
+        cache.keySet().removeIf(key -> key.player().equals(player));
+    }
+
+    /**
+     * {@return the number of queries answered from the cache}
+     */
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    /**
+     * {@return the number of queries that had to go to the delegate handler}
+     */
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * {@return the number of results currently cached, including expired ones that haven't been removed yet}
+     */
+    public int size()
+    {
+        return cache.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Entry<T> lookup(Key key)
+    {
+        var entry = cache.get(key);
+        if (entry != null && entry.expires() - System.nanoTime() > 0)
+        {
+            hits.increment();
+            return (Entry<T>)entry;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    private <T> T store(Key key, T value)
+    {
+        long now = System.nanoTime();
+        cache.put(key, new Entry<>(value, now + ttlNanos));
+
+        if (untilSweep.decrementAndGet() <= 0)
+        {
+            untilSweep.set(SWEEP_INTERVAL);
+            cache.values().removeIf(entry -> entry.expires() - now <= 0);
+        }
+        return value;
+    }
+
+    private record Key(UUID player, boolean online, PermissionNode<?> node, List<PermissionDynamicContext<?>> context) {}
+
+    private record Entry<T>(T value, long expires) {}
+}
@@ -26,6 +26,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 public final class PermissionAPI
 {
@@ -89,6 +90,38 @@ public final class PermissionAPI
     }
 
 
+    /**
+     * <p>Forgets every cached permission result, if caching is enabled.</p>
+     * <p>Permission handlers should call this when the permissions of many players change at once,
+     * for example when their configuration is reloaded.</p>
+     */
+    public static void invalidateCache()
+    {
+        if (activeHandler instanceof CachingPermissionHandler cache)
+            cache.invalidate();
+    }
+
+    /**
+     * <p>Forgets every cached permission result of a player, if caching is enabled.</p>
+     * <p>Permission handlers should call this when the permissions of a player change.</p>
+     *
+     * @param player the player whose permissions changed
+     */
+    public static void invalidateCache(UUID player)
+    {
+        if (activeHandler instanceof CachingPermissionHandler cache)
+            cache.invalidate(player);
+    }
+
+    /**
+     * @return the cache in front of the active permission handler, or null if caching is disabled in the server config
+     */
+    @Nullable
+    public static CachingPermissionHandler getCache()
+    {
+        return activeHandler instanceof CachingPermissionHandler cache ? cache : null;
+    }
+
     /**
      * <p>Helper method for internal use only!</p>
      * <p>Initializes the active permission handler based on the users config.</p>
@@ -125,6 +158,10 @@ public final class PermissionAPI
             if(!selectedPermissionHandler.equals(activeHandler.getIdentifier()))
                 LOGGER.warn("Identifier for permission handler {} does not match registered one {}", activeHandler.getIdentifier(), selectedPermissionHandler);
 
+            int cacheMillis = ForgeConfig.SERVER.permissionCacheMillis.get();
+            if (cacheMillis > 0)
+                PermissionAPI.activeHandler = new CachingPermissionHandler(PermissionAPI.activeHandler, cacheMillis, TimeUnit.MILLISECONDS);
+
             LOGGER.info("Successfully initialized permission handler {}", PermissionAPI.activeHandler.getIdentifier());
         }
         catch (ResourceLocationException e)
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Attributes the time spent ticking a level to the chunks it was spent in, so the most expensive chunks can be found.
+ * <p>
+ * The tick loops call {@link #start()} before ticking something, and one of the {@code end} methods with the chunk it belongs to
+ * afterwards. While disabled {@link #start()} returns 0 without reading the clock and the {@code end} methods return straight away, so
+ * the hooks cost a field read. While enabled every hook reads the clock once and adds to a per chunk total, the last chunk is cached as
+ * consecutive ticks are usually in the same chunk. Only server levels are recorded, and only from the server thread.
+ * <p>
+ * Memory is bounded by the number of chunks that ticked, which is capped per dimension, and the worst chunks are picked with a heap the
+ * size of the report rather than by sorting every chunk.
+ */
+@ApiStatus.Internal
+public final class ChunkTimings
+{
+    public enum Category
+    {
+        ENTITY,
+        BLOCK_ENTITY,
+        RANDOM_TICK,
+        SCHEDULED_TICK,
+        /**
+         * Time spent in Forge event listeners, which is also counted in the category of whatever fired the event, so it is not part of the
+         * chunk's total.
+         */
+        EVENT
+    }
+
+    private static final int CATEGORIES = Category.values().length;
+    /** Number of chunks recorded per dimension, later chunks are ignored until the timings are reset */
+    private static final int MAX_CHUNKS = 1 << 16;
+
+    private static final Reference2ObjectOpenHashMap<ResourceKey<Level>, Long2ObjectOpenHashMap<long[]>> dimensions = new Reference2ObjectOpenHashMap<>();
+    private static boolean enabled;
+    private static long duration;
+    private static long startTime;
+    private static long stopTime;
+    private static int startTick;
+    private static int stopTick;
+
+    @Nullable
+    private static ResourceKey<Level> lastDimension;
+    private static long lastChunk;
+    @Nullable
+    private static long[] lastTimes;
+
+    private ChunkTimings() {}
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Clears any previous timings and starts recording for the given duration in seconds
+     *
+     * @param tickCount The server's current tick count
+     */
+    public static void enable(int seconds, int tickCount)
+    {
+        reset();
+        duration = TimeUnit.SECONDS.toNanos(seconds);
+        startTime = stopTime = System.nanoTime();
+        startTick = stopTick = tickCount;
+        enabled = true;
+    }
+
+    /**
+     * Stops recording, keeping what has been recorded so far
+     *
+     * @param tickCount The server's current tick count
+     */
+    public static void disable(int tickCount)
+    {
+        if (!enabled)
+            return;
+        enabled = false;
+        stopTime = System.nanoTime();
+        stopTick = tickCount;
+    }
+
+    public static void reset()
+    {
+        enabled = false;
+        dimensions.clear();
+        lastDimension = null;
+        lastTimes = null;
+        startTime = stopTime = 0;
+        startTick = stopTick = 0;
+    }
+
+    /**
+     * @return the time to pass to {@code end} once the work is done, or 0 if nothing is being recorded
+     */
+    public static long start()
+    {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void end(Level level, Category category, BlockPos pos, long start)
+    {
+        if (start != 0)
+            end(level, category, ChunkPos.asLong(pos), start);
+    }
+
+    public static void end(Level level, Category category, ChunkPos pos, long start)
+    {
+        if (start != 0)
+            end(level, category, pos.toLong(), start);
+    }
+
+    /**
+     * Adds the time since {@code start} to the chunk
+     *
+     * @param chunk The chunk, as returned by {@link ChunkPos#toLong()}
+     * @param start The value returned by {@link #start()} before the work was done
+     */
+    public static void end(Level level, Category category, long chunk, long start)
+    {
+        if (start == 0 || !enabled || level.isClientSide())
+            return;
+
+        long now = System.nanoTime();
+        if (now - startTime > duration)
+        {
+            var server = level.getServer();
+            disable(server == null ? stopTick : server.getTickCount());
+            return;
+        }
+
+        var dimension = level.dimension();
+        long[] times = lastTimes;
+        if (times == null || lastDimension != dimension || lastChunk != chunk)
+        {
+            times = getTimes(dimension, chunk);
+            if (times == null)
+                return;
+            lastDimension = dimension;
+            lastChunk = chunk;
+            lastTimes = times;
+        }
+        times[category.ordinal()] += now - start;
+    }
+
+    @Nullable
+    private static long[] getTimes(ResourceKey<Level> dimension, long chunk)
+    {
+        var chunks = dimensions.get(dimension);
+        if (chunks == null)
+            dimensions.put(dimension, chunks = new Long2ObjectOpenHashMap<>());
+
+        var ret = chunks.get(chunk);
+        if (ret == null && chunks.size() < MAX_CHUNKS)
+            chunks.put(chunk, ret = new long[CATEGORIES]);
+        return ret;
+    }
+
+    /**
+     * @return the number of server ticks that have been recorded
+     */
+    public static int getRecordedTicks(int tickCount)
+    {
+        return (enabled ? tickCount : stopTick) - startTick;
+    }
+
+    /**
+     * @return the chunks that took the longest in the dimension, slowest first
+     */
+    public static List<ChunkTiming> getSlowest(ResourceKey<Level> dimension, int count)
+    {
+        var chunks = dimensions.get(dimension);
+        if (chunks == null || count <= 0)
+            return List.of();
+
+        // Min heap of the slowest chunks seen so far, so each chunk costs at most log(count)
+        var heap = new PriorityQueue<ChunkTiming>(count + 1, Comparator.comparingLong(ChunkTiming::getTotal));
+        for (Long2ObjectMap.Entry<long[]> entry : chunks.long2ObjectEntrySet())
+        {
+            var timing = new ChunkTiming(new ChunkPos(entry.getLongKey()), entry.getValue().clone());
+            if (heap.size() < count)
+                heap.add(timing);
+            else if (timing.getTotal() > heap.peek().getTotal())
+            {
+                heap.poll();
+                heap.add(timing);
+            }
+        }
+
+        var ret = new ArrayList<ChunkTiming>(heap.size());
+        while (!heap.isEmpty())
+            ret.add(heap.poll());
+        return ret.reversed();
+    }
+
+    /**
+     * The time a chunk took, in nanoseconds, per {@link Category}
+     */
+    public record ChunkTiming(ChunkPos pos, long[] nanos)
+    {
+        public long get(Category category)
+        {
+            return nanos[category.ordinal()];
+        }
+
+        /**
+         * @return the time spent ticking the chunk, not counting {@link Category#EVENT} which is already part of the other categories
+         */
+        public long getTotal()
+        {
+            long ret = 0;
+            for (var category : Category.values())
+            {
+                if (category != Category.EVENT)
+                    ret += nanos[category.ordinal()];
+            }
+            return ret;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.capabilities;
+
+import net.minecraft.core.Direction;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.IntTag;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.capabilities.IDirtyTrackingSerializable;
+import net.minecraftforge.common.util.LazyOptional;
+
+/** Serializable provider holding a single number, which counts how often it was saved, shared by the capability serialization tests. */
+class CounterCapability implements ICapabilityProvider, IDirtyTrackingSerializable<IntTag> {
+    int value;
+    int serialized;
+    private boolean dirty = true;
+
+    CounterCapability() {}
+
+    CounterCapability(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public <T> LazyOptional<T> getCapability(Capability<T> cap, Direction side) {
+        return LazyOptional.empty();
+    }
+
+    @Override
+    public IntTag serializeNBT(HolderLookup.Provider registryAccess) {
+        serialized++;
+        return IntTag.valueOf(value);
+    }
+
+    @Override
+    public void deserializeNBT(HolderLookup.Provider registryAccess, IntTag nbt) {
+        value = nbt.intValue();
+    }
+
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    @Override
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.capabilities;
+
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.core.Direction;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityDispatcher;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.capabilities.IDirtyTrackingSerializable;
+import net.minecraftforge.common.util.INBTSerializable;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.test.BaseTestMod;
+
+@Mod(DirtyTrackingCapabilityTest.MODID)
+@GameTestNamespace("forge")
+public class DirtyTrackingCapabilityTest extends BaseTestMod {
+    public static final String MODID = "dirty_tracking_capability";
+
+    public DirtyTrackingCapabilityTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    @GameTest
+    public static void reuses_clean_tags(GameTestHelper helper) {
+        var registries = helper.getLevel().registryAccess();
+        var counter = new CounterCapability();
+        var dispatcher = new CapabilityDispatcher(Map.of(ResourceLocation.fromNamespaceAndPath(MODID, "counter"), counter), List.of());
+
+        helper.assertTrue(dispatcher.isDirty(), "New providers should be dirty");
+        var first = dispatcher.serializeNBT(registries);
+        helper.assertTrue(!dispatcher.isDirty(), "Dispatcher should be clean after saving");
+
+        var second = dispatcher.serializeNBT(registries);
+        helper.assertTrue(counter.serialized == 1, () -> "Clean provider was serialized " + counter.serialized + " times");
+        helper.assertTrue(first.equals(second), "Reused tag should match the first one");
+
+        counter.value = 5;
+        counter.setDirty(true);
+        helper.assertTrue(dispatcher.isDirty(), "Dispatcher should be dirty after a provider changed");
+        var third = dispatcher.serializeNBT(registries);
+        helper.assertTrue(counter.serialized == 2, "Dirty provider should be serialized again");
+        helper.assertTrue(third.getIntOr(MODID + ":counter", 0) == 5, "Saved the wrong value");
+        helper.succeed();
+    }
+
+    /** Editing a saved tree in place, like {@code /data modify} does, must not change what is saved next time. */
+    @GameTest
+    public static void saved_tags_are_not_shared(GameTestHelper helper) {
+        var registries = helper.getLevel().registryAccess();
+        var name = MODID + ":values";
+        var values = new Values();
+        var dispatcher = new CapabilityDispatcher(Map.of(ResourceLocation.fromNamespaceAndPath(MODID, "values"), values), List.of());
+
+        dispatcher.serializeNBT(registries).getCompound(name).orElseThrow().putInt("value", 99);
+        var second = dispatcher.serializeNBT(registries);
+        helper.assertTrue(second.getCompound(name).orElseThrow().getIntOr("value", 0) == 3, () -> "Edited the first save, then saved " + second);
+
+        second.getCompound(name).orElseThrow().putInt("value", 99);
+        var third = dispatcher.serializeNBT(registries);
+        helper.assertTrue(third.getCompound(name).orElseThrow().getIntOr("value", 0) == 3, () -> "Edited a reused save, then saved " + third);
+        helper.assertTrue(values.serialized == 1, () -> "Clean provider was serialized " + values.serialized + " times");
+        helper.succeed();
+    }
+
+    @GameTest
+    public static void untracked_is_always_dirty(GameTestHelper helper) {
+        var dispatcher = new CapabilityDispatcher(Map.of(
+            ResourceLocation.fromNamespaceAndPath(MODID, "counter"), new CounterCapability(),
+            ResourceLocation.fromNamespaceAndPath(MODID, "untracked"), new Untracked()
+        ), List.of());
+
+        dispatcher.serializeNBT(helper.getLevel().registryAccess());
+        helper.assertTrue(dispatcher.isDirty(), "Providers without dirty tracking must be saved every time");
+        helper.succeed();
+    }
+
+    private static class Values implements ICapabilityProvider, IDirtyTrackingSerializable<CompoundTag> {
+        private int serialized;
+        private boolean dirty = true;
+
+        @Override
+        public <T> LazyOptional<T> getCapability(Capability<T> cap, Direction side) {
+            return LazyOptional.empty();
+        }
+
+        @Override
+        public CompoundTag serializeNBT(HolderLookup.Provider registryAccess) {
+            serialized++;
+            var ret = new CompoundTag();
+            ret.putInt("value", 3);
+            return ret;
+        }
+
+        @Override
+        public void deserializeNBT(HolderLookup.Provider registryAccess, CompoundTag nbt) {}
+
+        @Override
+        public boolean isDirty() {
+            return dirty;
+        }
+
+        @Override
+        public void setDirty(boolean dirty) {
+            this.dirty = dirty;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static class Untracked implements ICapabilityProvider, INBTSerializable<IntTag> {
+        @Override
+        public <T> LazyOptional<T> getCapability(Capability<T> cap, Direction side) {
+            return LazyOptional.empty();
+        }
+
+        @Override
+        public IntTag serializeNBT(HolderLookup.Provider registryAccess) {
+            return IntTag.valueOf(0);
+        }
+
+        @Override
+        public void deserializeNBT(HolderLookup.Provider registryAccess, IntTag nbt) {}
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.chunk;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.server.timings.ChunkTimings;
+import net.minecraftforge.server.timings.ChunkTimings.Category;
+import net.minecraftforge.test.BaseTestMod;
+
+@Mod(ChunkTimingsTest.MODID)
+@GameTestNamespace("forge")
+public class ChunkTimingsTest extends BaseTestMod {
+    public static final String MODID = "chunk_timings";
+
+    public ChunkTimingsTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    /** Records work in two chunks, and makes sure the slower one is reported first with the time in the right categories. */
+    @GameTest
+    public static void reports_slowest_chunk(GameTestHelper helper) {
+        var level = helper.getLevel();
+        var slow = helper.absolutePos(BlockPos.ZERO);
+        var fast = slow.offset(32, 0, 0);
+        try {
+            ChunkTimings.reset();
+            helper.assertTrue(ChunkTimings.start() == 0, "Disabled timings should not read the clock");
+
+            ChunkTimings.enable(60, level.getServer().getTickCount());
+            record(level, Category.BLOCK_ENTITY, slow, 2);
+            record(level, Category.EVENT, slow, 1);
+            record(level, Category.ENTITY, fast, 1);
+
+            var slowest = ChunkTimings.getSlowest(level.dimension(), 1);
+            helper.assertTrue(slowest.size() == 1, () -> "Expected one chunk, got " + slowest.size());
+            var timing = slowest.getFirst();
+            helper.assertTrue(timing.pos().equals(new ChunkPos(slow)), () -> "Expected " + new ChunkPos(slow) + " to be the slowest, got " + timing.pos());
+            helper.assertTrue(timing.get(Category.ENTITY) == 0, "Entity time was recorded in the wrong chunk");
+            helper.assertTrue(timing.getTotal() == timing.get(Category.BLOCK_ENTITY), "Event time should not count towards the total");
+            helper.assertTrue(ChunkTimings.getSlowest(level.dimension(), 10).size() == 2, "Both chunks should be recorded");
+            helper.succeed();
+        } finally {
+            ChunkTimings.reset();
+        }
+    }
+
+    private static void record(ServerLevel level, Category category, BlockPos pos, int millis) {
+        long start = ChunkTimings.start();
+        long until = start + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < until)
+            Thread.onSpinWait();
+        ChunkTimings.end(level, category, pos, start);
+    }
+}
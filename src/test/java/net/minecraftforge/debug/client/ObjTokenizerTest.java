@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.client;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraftforge.client.model.obj.ObjTokenizer;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.test.BaseTestMod;
+
+/**
+ * Checks that {@link ObjTokenizer} reads OBJ and MTL files exactly like the line based tokenizer it replaced, and that its in place
+ * float and index parsing gives the same results as parsing the tokens as strings.
+ */
+@Mod(ObjTokenizerTest.MODID)
+@GameTestNamespace("forge")
+public class ObjTokenizerTest extends BaseTestMod {
+    public static final String MODID = "obj_tokenizer";
+    private static final String FIXTURES = "/obj_model_test/assets/obj_model_test/models/";
+    private static final String EDGE_CASES = String.join("\n",
+        "# Comment",
+        "o edge_cases",
+        "v 1.5e-3 -2E+2 .25 \\",
+        "  1",
+        "v 0.3780786804403148 1e10 -0.0 +7",
+        "vt 123456789 0.1234567\t3.4028235e38",
+        "v 1 2 3\r",
+        "vn NaN -Infinity 1e-45",
+        "vn 0.000000001 16777217 100000000000",
+        "",
+        "\t ",
+        "f -1/-2/-3 -4//-5 3/4 5/\\",
+        " 6/7/8",
+        "f 1/ 2// 3/4/ //9",
+        "s off",
+        "usemtl two  words\\",
+        "# continuation into a comment stops the line",
+        "g last\\");
+
+    public ObjTokenizerTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    @GameTest
+    public static void matches_legacy_tokenizer(GameTestHelper helper) {
+        try {
+            for (var name : List.of("pyramid.obj", "pyramid.mtl")) {
+                byte[] data;
+                try (var in = ObjTokenizerTest.class.getResourceAsStream(FIXTURES + name)) {
+                    helper.assertTrue(in != null, () -> "Missing fixture " + name);
+                    data = in.readAllBytes();
+                }
+                compare(helper, name, data);
+            }
+            compare(helper, "edge cases", EDGE_CASES.getBytes(StandardCharsets.UTF_8));
+            compare(helper, "edge cases with CRLF", EDGE_CASES.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        helper.succeed();
+    }
+
+    private static void compare(GameTestHelper helper, String name, byte[] data) throws IOException {
+        // Lines as strings, including empty ones
+        try (var expected = new LegacyTokenizer(new ByteArrayInputStream(data)); var actual = new ObjTokenizer(new ByteArrayInputStream(data))) {
+            for (int line = 1; ; line++) {
+                var want = expected.readAndSplitLine(false);
+                var got = actual.readAndSplitLine(false);
+                int at = line;
+                helper.assertTrue(Arrays.equals(want, got), () -> name + " line " + at + ": expected " + Arrays.toString(want) + ", got " + Arrays.toString(got));
+                if (want == null)
+                    break;
+            }
+        }
+
+        // Lines parsed in place, skipping empty ones
+        try (var expected = new LegacyTokenizer(new ByteArrayInputStream(data)); var actual = new ObjTokenizer(new ByteArrayInputStream(data))) {
+            String[] want;
+            while ((want = expected.readAndSplitLine(true)) != null) {
+                var line = want;
+                helper.assertTrue(actual.nextLine(), () -> name + " ended before " + Arrays.toString(line));
+                helper.assertTrue(actual.tokenCount() == line.length, () -> name + ": wrong token count for " + Arrays.toString(line));
+                helper.assertTrue(actual.tokenEquals(0, line[0]), () -> name + ": wrong keyword for " + Arrays.toString(line));
+
+                for (int i = 1; i < line.length; i++) {
+                    var token = line[i];
+                    if (line[0].equals("f")) {
+                        // The same parsing ObjModel did before, negative indices are resolved later
+                        int[] indices = Arrays.stream(token.split("/")).mapToInt(num -> num.isEmpty() ? 0 : Integer.parseInt(num)).toArray();
+                        var parsed = actual.parseIndices(i);
+                        helper.assertTrue(Arrays.equals(indices, parsed), () -> name + ": " + token + " parsed as " + Arrays.toString(parsed));
+                    } else if (line[0].startsWith("v")) {
+                        float value = Float.parseFloat(token);
+                        float parsed = actual.parseFloat(i);
+                        helper.assertTrue(Float.floatToRawIntBits(value) == Float.floatToRawIntBits(parsed), () -> name + ": " + token + " parsed as " + parsed + " instead of " + value);
+                    }
+                }
+            }
+            helper.assertFalse(actual.nextLine(), () -> name + " has lines left over");
+        }
+    }
+
+    /** The tokenizer from before it parsed in place, kept to compare against. */
+    private static final class LegacyTokenizer implements AutoCloseable {
+        private final BufferedReader lineReader;
+
+        private LegacyTokenizer(InputStream inputStream) {
+            this.lineReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        }
+
+        private String[] readAndSplitLine(boolean ignoreEmptyLines) throws IOException {
+            do {
+                String currentLine = lineReader.readLine();
+                if (currentLine == null)
+                    return null;
+
+                List<String> lineParts = new ArrayList<>();
+
+                if (currentLine.startsWith("#"))
+                    currentLine = "";
+
+                if (!currentLine.isEmpty()) {
+                    boolean hasContinuation;
+                    do {
+                        hasContinuation = currentLine.endsWith("\\");
+                        String tmp = hasContinuation ? currentLine.substring(0, currentLine.length() - 1) : currentLine;
+
+                        Arrays.stream(tmp.split("[\t ]+")).filter(s -> !s.isEmpty()).forEach(lineParts::add);
+
+                        if (hasContinuation) {
+                            currentLine = lineReader.readLine();
+                            if (currentLine == null)
+                                break;
+
+                            if (currentLine.isEmpty() || currentLine.startsWith("#"))
+                                break;
+                        }
+                    } while (hasContinuation);
+                }
+
+                if (!lineParts.isEmpty())
+                    return lineParts.toArray(new String[0]);
+            } while (ignoreEmptyLines);
+
+            return new String[0];
+        }
+
+        @Override
+        public void close() throws IOException {
+            lineReader.close();
+        }
+    }
+}
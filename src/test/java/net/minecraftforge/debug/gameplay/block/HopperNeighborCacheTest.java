@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.gameplay.block;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.ChestBlockEntity;
+import net.minecraft.world.level.block.entity.HopperBlockEntity;
+import net.minecraftforge.common.capabilities.NeighborCapabilityCache;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.items.VanillaInventoryCodeHooks;
+import net.minecraftforge.test.BaseTestMod;
+
+/** Makes sure hoppers never move items through a {@link NeighborCapabilityCache} entry for a neighbor that is gone. */
+@Mod(HopperNeighborCacheTest.MODID)
+@GameTestNamespace("forge")
+public class HopperNeighborCacheTest extends BaseTestMod {
+    public static final String MODID = "hopper_neighbor_cache";
+    private static final BlockPos HOPPER = new BlockPos(1, 1, 1);
+
+    public HopperNeighborCacheTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    @GameTest
+    public static void inserts_into_replaced_neighbor(GameTestHelper helper) {
+        var below = HOPPER.below();
+        helper.setBlock(below, Blocks.CHEST);
+        var hopper = hopper(helper);
+        hopper.setItem(0, new ItemStack(Items.STONE, 4));
+
+        helper.assertTrue(VanillaInventoryCodeHooks.insertHook(hopper), "Hopper should push into the chest");
+        helper.assertContainerContains(below, Items.STONE, 1);
+
+        // Same block state, but a new block entity
+        var first = helper.getBlockEntity(below, ChestBlockEntity.class);
+        helper.setBlock(below, Blocks.AIR);
+        helper.setBlock(below, Blocks.CHEST);
+        helper.assertTrue(helper.getBlockEntity(below, BlockEntity.class) != first, "Chest should have been replaced");
+        helper.assertTrue(VanillaInventoryCodeHooks.insertHook(hopper), "Hopper should push into the new chest");
+        helper.assertContainerContains(below, Items.STONE, 1);
+
+        helper.setBlock(below, Blocks.BARREL);
+        helper.assertTrue(VanillaInventoryCodeHooks.insertHook(hopper), "Hopper should push into the barrel");
+        helper.assertContainerContains(below, Items.STONE, 1);
+
+        helper.setBlock(below, Blocks.AIR);
+        helper.assertFalse(VanillaInventoryCodeHooks.insertHook(hopper), "Hopper pushed into a removed barrel");
+        helper.assertTrue(hopper.getItem(0).getCount() == 1, () -> "Hopper should still have 1 item, has " + hopper.getItem(0).getCount());
+        helper.succeed();
+    }
+
+    @GameTest
+    public static void extracts_from_replaced_neighbor(GameTestHelper helper) {
+        var above = HOPPER.above();
+        helper.setBlock(above, Blocks.CHEST);
+        helper.getBlockEntity(above, ChestBlockEntity.class).setItem(0, new ItemStack(Items.STONE));
+        var hopper = hopper(helper);
+
+        helper.assertTrue(VanillaInventoryCodeHooks.extractHook(helper.getLevel(), hopper) == Boolean.TRUE, "Hopper should pull from the chest");
+        helper.assertTrue(hopper.countItem(Items.STONE) == 1, "Hopper should have pulled the stone");
+
+        helper.setBlock(above, Blocks.AIR);
+        helper.setBlock(above, Blocks.CHEST);
+        helper.getBlockEntity(above, ChestBlockEntity.class).setItem(0, new ItemStack(Items.DIAMOND));
+        helper.assertTrue(VanillaInventoryCodeHooks.extractHook(helper.getLevel(), hopper) == Boolean.TRUE, "Hopper should pull from the new chest");
+        helper.assertTrue(hopper.countItem(Items.DIAMOND) == 1, "Hopper should have pulled the diamond");
+
+        helper.setBlock(above, Blocks.AIR);
+        helper.assertTrue(VanillaInventoryCodeHooks.extractHook(helper.getLevel(), hopper) == null, "Hopper pulled from a removed chest");
+        helper.succeed();
+    }
+
+    private static HopperBlockEntity hopper(GameTestHelper helper) {
+        helper.setBlock(HOPPER, Blocks.HOPPER);
+        return helper.getBlockEntity(HOPPER, HopperBlockEntity.class);
+    }
+}
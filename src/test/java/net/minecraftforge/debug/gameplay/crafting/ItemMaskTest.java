@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.gameplay.crafting;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.tags.ItemTags;
+import net.minecraft.tags.TagKey;
+import net.minecraft.tags.TagLoader;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraftforge.common.crafting.ingredients.CompoundIngredient;
+import net.minecraftforge.common.crafting.ingredients.DifferenceIngredient;
+import net.minecraftforge.common.crafting.ingredients.IntersectionIngredient;
+import net.minecraftforge.event.ForgeEventFactory;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.test.BaseTestMod;
+
+/**
+ * Composite ingredients cache the items they match, these make sure the cache is rebuilt when tags are reloaded.
+ * Each test binds a tag of its own to stone, uses the composite, rebinds the tag to dirt, and then puts every tag back.
+ */
+@Mod(ItemMaskTest.MODID)
+@GameTestNamespace("forge")
+public class ItemMaskTest extends BaseTestMod {
+    public static final String MODID = "item_mask";
+    private static final TagKey<Item> SWAPPED = ItemTags.create(rl("swapped"));
+    private static final List<Item> CHECKED = List.of(Items.STONE, Items.DIRT, Items.GRAVEL);
+
+    public ItemMaskTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    @GameTest
+    public static void compound_follows_tag_reload(GameTestHelper helper) {
+        assertFollowsReload(helper, tag -> CompoundIngredient.of(tag, Ingredient.of(Items.GRAVEL)),
+            Set.of(Items.STONE, Items.GRAVEL), Set.of(Items.DIRT, Items.GRAVEL));
+    }
+
+    @GameTest
+    public static void intersection_follows_tag_reload(GameTestHelper helper) {
+        assertFollowsReload(helper, tag -> IntersectionIngredient.of(tag, Ingredient.of(Items.STONE, Items.DIRT)),
+            Set.of(Items.STONE), Set.of(Items.DIRT));
+    }
+
+    @GameTest
+    public static void difference_follows_tag_reload(GameTestHelper helper) {
+        assertFollowsReload(helper, tag -> DifferenceIngredient.of(Ingredient.of(Items.STONE, Items.DIRT, Items.GRAVEL), tag),
+            Set.of(Items.DIRT, Items.GRAVEL), Set.of(Items.STONE, Items.GRAVEL));
+    }
+
+    private static void assertFollowsReload(GameTestHelper helper, Function<Ingredient, Ingredient> factory, Set<Item> before, Set<Item> after) {
+        var original = BuiltInRegistries.ITEM.getTags()
+            .collect(Collectors.toMap(HolderSet.Named::key, named -> named.stream().toList()));
+        try {
+            reload(helper, original, Items.STONE);
+            var ingredient = factory.apply(Ingredient.of(BuiltInRegistries.ITEM.getOrThrow(SWAPPED)));
+            assertItems(helper, ingredient, before, "before the reload");
+
+            reload(helper, original, Items.DIRT);
+            assertItems(helper, ingredient, after, "after the reload");
+        } finally {
+            bind(helper, original);
+        }
+        helper.succeed();
+    }
+
+    private static void reload(GameTestHelper helper, Map<TagKey<Item>, List<Holder<Item>>> original, Item swapped) {
+        var tags = new HashMap<>(original);
+        tags.put(SWAPPED, List.of(BuiltInRegistries.ITEM.wrapAsHolder(swapped)));
+        bind(helper, tags);
+    }
+
+    /** Binds the item tags the same way a datapack reload does, and fires the same update */
+    private static void bind(GameTestHelper helper, Map<TagKey<Item>, List<Holder<Item>>> tags) {
+        BuiltInRegistries.ITEM.prepareTagReload(new TagLoader.LoadResult<>(Registries.ITEM, tags)).apply();
+        ForgeEventFactory.onTagsUpdated(helper.getLevel().registryAccess(), false, false);
+    }
+
+    private static void assertItems(GameTestHelper helper, Ingredient ingredient, Set<Item> expected, String when) {
+        for (var item : CHECKED) {
+            boolean matched = ingredient.test(new ItemStack(item));
+            helper.assertTrue(matched == expected.contains(item), () -> "Wrong test result for " + item + " " + when + ": " + matched);
+        }
+
+        var items = ingredient.items().map(Holder::value).collect(Collectors.toSet());
+        helper.assertTrue(items.equals(expected), () -> "Wrong items " + when + ": " + items);
+    }
+}
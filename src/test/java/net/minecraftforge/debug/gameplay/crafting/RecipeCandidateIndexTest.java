@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.gameplay.crafting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.CraftingInput;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.RecipeInput;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.item.crafting.ShapedRecipe;
+import net.minecraft.world.item.crafting.SingleRecipeInput;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.test.BaseTestMod;
+
+/** Compares {@link net.minecraft.world.item.crafting.RecipeManager#getIndexedRecipeFor} against the linear scan of {@code getRecipeFor}. */
+@Mod(RecipeCandidateIndexTest.MODID)
+@GameTestNamespace("forge")
+public class RecipeCandidateIndexTest extends BaseTestMod {
+    public static final String MODID = "recipe_candidate_index";
+
+    public RecipeCandidateIndexTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    /** Every item on its own, in a crafting grid and in the single item recipe types. */
+    @GameTest
+    public static void single_items_match_linear_scan(GameTestHelper helper) {
+        for (var item : BuiltInRegistries.ITEM) {
+            var stack = new ItemStack(item);
+            if (stack.isEmpty())
+                continue;
+
+            compare(helper, RecipeType.CRAFTING, CraftingInput.of(1, 1, List.of(stack)));
+            var single = new SingleRecipeInput(stack);
+            compare(helper, RecipeType.SMELTING, single);
+            compare(helper, RecipeType.BLASTING, single);
+            compare(helper, RecipeType.SMOKING, single);
+            compare(helper, RecipeType.CAMPFIRE_COOKING, single);
+            compare(helper, RecipeType.STONECUTTING, single);
+        }
+        helper.succeed();
+    }
+
+    /**
+     * Fills a grid from each crafting recipe's own ingredients, including the test recipes with custom ingredients, so most inputs
+     * match something, and also tries them in reverse so some don't.
+     */
+    @GameTest
+    public static void crafting_grids_match_linear_scan(GameTestHelper helper) {
+        var manager = helper.getLevel().recipeAccess();
+        int found = 0;
+        for (var holder : manager.getRecipes()) {
+            if (holder.value().getType() != RecipeType.CRAFTING)
+                continue;
+
+            var input = grid(holder.value());
+            if (input == null)
+                continue;
+
+            if (compare(helper, RecipeType.CRAFTING, input).isPresent())
+                found++;
+
+            var reversed = new ArrayList<>(input.items());
+            Collections.reverse(reversed);
+            compare(helper, RecipeType.CRAFTING, CraftingInput.of(input.width(), input.height(), reversed));
+        }
+
+        int total = found;
+        helper.assertTrue(total > 100, () -> "Only " + total + " grids matched a recipe, the test isn't testing much");
+        helper.succeed();
+    }
+
+    private static <I extends RecipeInput, T extends Recipe<I>> Optional<RecipeHolder<T>> compare(GameTestHelper helper, RecipeType<T> type, I input) {
+        var manager = helper.getLevel().recipeAccess();
+        var expected = manager.getRecipeFor(type, input, helper.getLevel());
+        var actual = manager.getIndexedRecipeFor(type, input, helper.getLevel());
+        helper.assertTrue(expected.map(RecipeHolder::id).equals(actual.map(RecipeHolder::id)),
+            () -> "Index found " + actual.map(RecipeHolder::id) + " instead of " + expected.map(RecipeHolder::id) + " for " + type + " " + input);
+        return expected;
+    }
+
+    @Nullable
+    private static CraftingInput grid(Recipe<?> recipe) {
+        if (recipe instanceof ShapedRecipe shaped) {
+            var items = new ArrayList<ItemStack>();
+            for (var ingredient : shaped.getIngredients())
+                items.add(ingredient.map(RecipeCandidateIndexTest::first).orElse(ItemStack.EMPTY));
+            return CraftingInput.of(shaped.getWidth(), shaped.getHeight(), items);
+        }
+
+        var placement = recipe.placementInfo();
+        if (placement.isImpossibleToPlace() || placement.ingredients().isEmpty())
+            return null;
+
+        var items = new ArrayList<ItemStack>();
+        for (var ingredient : placement.ingredients())
+            items.add(first(ingredient));
+        return CraftingInput.of(items.size(), 1, items);
+    }
+
+    private static ItemStack first(Ingredient ingredient) {
+        return ingredient.items().findFirst().map(ItemStack::new).orElse(ItemStack.EMPTY);
+    }
+}
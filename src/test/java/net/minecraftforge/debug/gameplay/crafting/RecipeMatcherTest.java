@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.gameplay.crafting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraftforge.common.util.RecipeMatcher;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.test.BaseTestMod;
+
+@Mod(RecipeMatcherTest.MODID)
+@GameTestNamespace("forge")
+public class RecipeMatcherTest extends BaseTestMod {
+    public static final String MODID = "recipe_matcher_test";
+
+    public RecipeMatcherTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    /** Compares {@link RecipeMatcher} against an exhaustive search over random grids of up to 9 slots. */
+    @GameTest
+    public static void matches_brute_force(GameTestHelper helper) {
+        var random = new Random(42);
+        for (int iteration = 0; iteration < 10_000; iteration++) {
+            int size = random.nextInt(10);
+            double density = random.nextDouble();
+            var graph = new boolean[size][size];
+            for (int test = 0; test < size; test++) {
+                for (int input = 0; input < size; input++)
+                    graph[test][input] = random.nextDouble() < density;
+            }
+
+            int[] ret = RecipeMatcher.findMatches(inputs(size), tests(graph));
+            boolean expected = bruteForce(graph, 0, new boolean[size]);
+            int seed = iteration;
+            helper.assertTrue(expected == (ret != null), () -> "Matcher disagreed with brute force on iteration " + seed);
+
+            if (ret != null) {
+                var used = new boolean[size];
+                for (int input = 0; input < size; input++) {
+                    int test = ret[input];
+                    helper.assertTrue(graph[test][input] && !used[test], () -> "Matcher returned an invalid mapping on iteration " + seed);
+                    used[test] = true;
+                }
+            }
+        }
+        helper.succeed();
+    }
+
+    /**
+     * Every test but one accepts every input except the last, and only the first test accepts the last input.
+     * This forces a long augmenting path, and used to drive the old backtracking search exponential on 25 slot grids.
+     * The matcher must still test every input against every test exactly once.
+     */
+    @GameTest
+    public static void worst_case_overlap(GameTestHelper helper) {
+        int size = 25;
+        var graph = new boolean[size][size];
+        for (int test = 0; test < size; test++) {
+            for (int input = 0; input < size; input++)
+                graph[test][input] = test == size - 1 ? input == size - 2 : input != size - 1 || test == 0;
+        }
+
+        var calls = new AtomicInteger();
+        var tests = new ArrayList<Predicate<Integer>>(size);
+        for (var predicate : tests(graph)) {
+            tests.add(input -> {
+                calls.incrementAndGet();
+                return predicate.test(input);
+            });
+        }
+
+        int[] ret = RecipeMatcher.findMatches(inputs(size), tests);
+        helper.assertTrue(ret != null, "Failed to find a match for the worst case grid");
+        helper.assertTrue(ret[size - 1] == 0, "Last input must be claimed by the first test");
+        helper.assertTrue(calls.get() == size * size, () -> "Expected " + (size * size) + " predicate calls, got " + calls.get());
+        helper.succeed();
+    }
+
+    private static List<Integer> inputs(int size) {
+        var ret = new ArrayList<Integer>(size);
+        for (int x = 0; x < size; x++)
+            ret.add(x);
+        return ret;
+    }
+
+    private static List<Predicate<Integer>> tests(boolean[][] graph) {
+        var ret = new ArrayList<Predicate<Integer>>(graph.length);
+        for (var row : graph)
+            ret.add(input -> row[input]);
+        return ret;
+    }
+
+    private static boolean bruteForce(boolean[][] graph, int test, boolean[] used) {
+        if (test == graph.length)
+            return true;
+
+        for (int input = 0; input < graph.length; input++) {
+            if (!used[input] && graph[test][input]) {
+                used[input] = true;
+                if (bruteForce(graph, test + 1, used))
+                    return true;
+                used[input] = false;
+            }
+        }
+        return false;
+    }
+}
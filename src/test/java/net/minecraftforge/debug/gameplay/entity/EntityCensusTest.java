@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.gameplay.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.test.BaseTestMod;
+
+@Mod(EntityCensusTest.MODID)
+@GameTestNamespace("forge")
+public class EntityCensusTest extends BaseTestMod {
+    public static final String MODID = "entity_census";
+
+    public EntityCensusTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    /** Spawns, moves, and removes entities, making sure the census always matches a full scan of the level. */
+    @GameTest
+    public static void matches_full_scan(GameTestHelper helper) {
+        var level = helper.getLevel();
+        var pigs = new Entity[3];
+        for (int x = 0; x < pigs.length; x++)
+            pigs[x] = helper.spawn(EntityType.PIG, new BlockPos(x, 1, 1));
+        assertMatches(helper, level, "after spawning");
+
+        pigs[0].setPos(pigs[0].getX() + 16, pigs[0].getY(), pigs[0].getZ());
+        pigs[1].setPos(pigs[1].getX(), pigs[1].getY(), pigs[1].getZ() - 16);
+        assertMatches(helper, level, "after moving");
+
+        pigs[2].discard();
+        assertMatches(helper, level, "after removing");
+        helper.succeed();
+    }
+
+    private static void assertMatches(GameTestHelper helper, ServerLevel level, String when) {
+        var expected = new Long2IntOpenHashMap();
+        for (var entity : level.getEntities().getAll()) {
+            if (entity.getType() == EntityType.PIG)
+                expected.addTo(entity.chunkPosition().toLong(), 1);
+        }
+
+        var counts = level.getEntityCensus().get(EntityType.PIG);
+        if (expected.isEmpty()) {
+            helper.assertTrue(counts == null, () -> "Census has pigs " + when);
+            return;
+        }
+
+        int total = expected.values().intStream().sum();
+        helper.assertTrue(counts != null && counts.getTotal() == total, () -> "Census has the wrong number of pigs " + when);
+        helper.assertTrue(counts.getChunks().equals(expected), () -> "Census has pigs in the wrong chunks " + when + ": " + counts.getChunks() + " expected " + expected);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.gameplay.entity;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.common.ForgeMod;
+import net.minecraftforge.fluids.FluidType;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.test.BaseTestMod;
+
+@Mod(EntityFluidPushingTest.MODID)
+@GameTestNamespace("forge")
+public class EntityFluidPushingTest extends BaseTestMod {
+    public static final String MODID = "entity_fluid_pushing";
+    private static final Predicate<FluidState> ALWAYS = state -> true;
+
+    public EntityFluidPushingTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    /** Compares fluid pushing in flowing water against the map based implementation it replaced. */
+    @GameTest
+    public static void matches_reference(GameTestHelper helper) {
+        helper.setBlock(new BlockPos(0, 1, 1), Blocks.WATER);
+        for (int x = 1; x < 3; x++) {
+            for (int z = 0; z < 3; z++)
+                helper.setBlock(new BlockPos(x, 1, z), Fluids.FLOWING_WATER.getFlowing(8 - x * 2, false).createLegacyBlock());
+        }
+
+        var pig = helper.spawn(EntityType.PIG, new BlockPos(1, 1, 1));
+        pig.setDeltaMovement(0.001, 0, -0.002);
+
+        var start = pig.getDeltaMovement();
+        var expectedHeights = new LinkedHashMap<FluidType, Double>();
+        var expected = reference(pig, expectedHeights);
+        pig.setDeltaMovement(start);
+        pig.updateFluidHeightAndDoFluidPushing(ALWAYS);
+
+        helper.assertTrue(!expectedHeights.isEmpty(), "Pig should be in water");
+        helper.assertTrue(pig.getDeltaMovement().equals(expected), () -> "Expected motion " + expected + " but got " + pig.getDeltaMovement());
+        for (var entry : expectedHeights.entrySet())
+            helper.assertTrue(pig.getFluidTypeHeight(entry.getKey()) == entry.getValue(), () -> "Wrong height for " + entry.getKey());
+        helper.succeed();
+    }
+
+    /** Makes sure updating fluid heights no longer allocates per call, guardians aren't pushed so no flow vectors are computed. */
+    @GameTest
+    public static void allocations(GameTestHelper helper) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) || !threads.isThreadAllocatedMemorySupported()) {
+            helper.succeed();
+            return;
+        }
+
+        for (int x = 0; x < 3; x++) {
+            for (int y = 1; y < 3; y++) {
+                for (int z = 0; z < 3; z++)
+                    helper.setBlock(new BlockPos(x, y, z), Blocks.WATER);
+            }
+        }
+        var guardian = helper.spawn(EntityType.GUARDIAN, new BlockPos(1, 1, 1));
+
+        int calls = 20_000;
+        for (int x = 0; x < calls; x++)
+            guardian.updateFluidHeightAndDoFluidPushing(ALWAYS);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int x = 0; x < calls; x++)
+            guardian.updateFluidHeightAndDoFluidPushing(ALWAYS);
+        long perCall = (threads.getCurrentThreadAllocatedBytes() - before) / calls;
+
+        helper.assertTrue(guardian.isInFluidType(ForgeMod.WATER_TYPE.get()), "Guardian should be in water");
+        // Leaves room for the deflated bounding box when it isn't scalar replaced
+        helper.assertTrue(perCall < 128, () -> "Allocated " + perCall + " bytes per call");
+        helper.succeed();
+    }
+
+    /** The implementation from before fluid motion was accumulated into primitive arrays, returning the resulting motion. */
+    private static Vec3 reference(Entity entity, Map<FluidType, Double> heights) {
+        var level = entity.level();
+        var aabb = entity.getBoundingBox().deflate(0.001);
+        int i = Mth.floor(aabb.minX);
+        int j = Mth.ceil(aabb.maxX);
+        int k = Mth.floor(aabb.minY);
+        int l = Mth.ceil(aabb.maxY);
+        int i1 = Mth.floor(aabb.minZ);
+        int j1 = Mth.ceil(aabb.maxZ);
+        var flows = new LinkedHashMap<FluidType, Vec3>();
+        var counts = new LinkedHashMap<FluidType, Integer>();
+        var pos = new BlockPos.MutableBlockPos();
+
+        for (int x = i; x < j; x++) {
+            for (int y = k; y < l; y++) {
+                for (int z = i1; z < j1; z++) {
+                    pos.set(x, y, z);
+                    var state = level.getFluidState(pos);
+                    var type = state.getFluidType();
+                    if (type.isAir())
+                        continue;
+
+                    double top = y + state.getHeight(level, pos);
+                    if (top < aabb.minY)
+                        continue;
+
+                    double height = Math.max(top - aabb.minY, heights.getOrDefault(type, 0.0D));
+                    heights.put(type, height);
+                    flows.putIfAbsent(type, Vec3.ZERO);
+                    counts.putIfAbsent(type, 0);
+                    if (entity.isPushedByFluid(type)) {
+                        var flow = state.getFlow(level, pos);
+                        if (height < 0.4D)
+                            flow = flow.scale(height);
+                        flows.put(type, flows.get(type).add(flow));
+                        counts.put(type, counts.get(type) + 1);
+                    }
+                }
+            }
+        }
+
+        var motion = entity.getDeltaMovement();
+        for (var entry : flows.entrySet()) {
+            var flow = entry.getValue();
+            if (flow.length() > 0.0D) {
+                int count = counts.get(entry.getKey());
+                if (count > 0)
+                    flow = flow.scale(1.0D / (double)count);
+                flow = flow.normalize();
+                var current = motion;
+                flow = flow.scale(entity.getFluidMotionScale(entry.getKey()));
+                if (Math.abs(current.x) < 0.003 && Math.abs(current.z) < 0.003 && flow.length() < 0.0045000000000000005)
+                    flow = flow.normalize().scale(0.0045000000000000005);
+                motion = motion.add(flow);
+            }
+        }
+        return motion;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.gameplay.item;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
+import net.minecraftforge.items.ItemStackHandler;
+import net.minecraftforge.items.wrapper.CombinedInvWrapper;
+import net.minecraftforge.test.BaseTestMod;
+
+@Mod(ItemHandlerOccupancyTest.MODID)
+@GameTestNamespace("forge")
+public class ItemHandlerOccupancyTest extends BaseTestMod {
+    public static final String MODID = "item_handler_occupancy";
+
+    public ItemHandlerOccupancyTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    /** Checks the tracked occupancy of {@link ItemStackHandler} against a plain slot by slot scan while it is randomly filled and emptied. */
+    @GameTest
+    public static void stack_handler_occupancy(GameTestHelper helper) {
+        var random = new Random(42);
+        var handler = new ItemStackHandler(130);
+        for (int iteration = 0; iteration < 2_000; iteration++) {
+            int slot = random.nextInt(handler.getSlots());
+            switch (random.nextInt(3)) {
+                case 0 -> handler.setStackInSlot(slot, random.nextBoolean() ? ItemStack.EMPTY : new ItemStack(Items.STONE, 1 + random.nextInt(64)));
+                case 1 -> handler.insertItem(slot, new ItemStack(Items.STONE, 1 + random.nextInt(64)), false);
+                default -> handler.extractItem(slot, random.nextInt(65), false);
+            }
+
+            int start = random.nextInt(handler.getSlots() + 1);
+            int seed = iteration;
+            helper.assertTrue(handler.findEmptySlot(start) == scan(handler, start, false), () -> "Wrong empty slot on iteration " + seed);
+            helper.assertTrue(handler.findNonEmptySlot(start) == scan(handler, start, true), () -> "Wrong non-empty slot on iteration " + seed);
+        }
+
+        for (int slot = 0; slot < handler.getSlots(); slot++)
+            handler.setStackInSlot(slot, new ItemStack(Items.STONE, 64));
+        helper.assertTrue(handler.isFull(), "Handler should be full");
+        helper.assertTrue(handler.findEmptySlot(0) == -1, "Full handler has no empty slots");
+        helper.succeed();
+    }
+
+    /** Makes sure {@link CombinedInvWrapper} maps slots to the right handler, skipping handlers without any slots. */
+    @GameTest
+    public static void combined_wrapper_slots(GameTestHelper helper) {
+        var first = new ItemStackHandler(3);
+        var empty = new ItemStackHandler(0);
+        var second = new ItemStackHandler(70);
+        var combined = new CombinedInvWrapper(first, empty, second);
+
+        helper.assertTrue(combined.getSlots() == 73, "Wrong slot count");
+        for (int slot = 0; slot < combined.getSlots(); slot++)
+            combined.setStackInSlot(slot, new ItemStack(Items.STONE, slot + 1 > 64 ? 64 : slot + 1));
+
+        helper.assertTrue(first.getStackInSlot(2).getCount() == 3, "Slot 2 should be in the first handler");
+        helper.assertTrue(second.getStackInSlot(0).getCount() == 4, "Slot 3 should be in the second handler");
+        helper.assertTrue(combined.getStackInSlot(73).isEmpty(), "Slots past the end should be empty");
+
+        second.setStackInSlot(66, ItemStack.EMPTY);
+        helper.assertTrue(combined.findEmptySlot(0) == 69, "Wrong empty slot");
+        helper.assertTrue(combined.findNonEmptySlot(69) == 70, "Wrong non-empty slot");
+
+        var target = new ItemStackHandler(1);
+        int moved = ItemHandlerHelper.moveItems(combined, target, 100, stack -> helper.fail("Nothing should overflow"));
+        helper.assertTrue(moved == 64 && target.getStackInSlot(0).getCount() == 64, "Should have filled the target");
+        helper.succeed();
+    }
+
+    /** Stacks changed in place, against the contract of getStackInSlot, must still be found by the tracked searches. */
+    @GameTest
+    public static void stacks_changed_in_place(GameTestHelper helper) {
+        var handler = new ItemStackHandler(3);
+        for (int slot = 0; slot < handler.getSlots(); slot++)
+            handler.setStackInSlot(slot, new ItemStack(Items.STONE, 64));
+        helper.assertTrue(handler.isFull(), "Handler should be full");
+
+        handler.getStackInSlot(1).shrink(64);
+        helper.assertTrue(handler.findEmptySlot(0) == 1, "Stack emptied in place should be found as empty");
+        helper.assertTrue(handler.findNonEmptySlot(1) == 2, "Stack emptied in place should not be found as occupied");
+        helper.assertFalse(handler.isFull(), "Handler with an emptied stack should not be full");
+
+        var stack = new ItemStack(Items.STONE, 0);
+        handler.setStackInSlot(1, stack);
+        stack.grow(64);
+        helper.assertTrue(handler.findEmptySlot(0) == -1, "Stack filled in place should not be found as empty");
+        helper.assertTrue(handler.isFull(), "Handler should be full again");
+
+        handler.getStackInSlot(0).shrink(64);
+        helper.assertTrue(handler.findEmptySlot(0) == 0, "Stack emptied in place should be found as empty");
+        handler.getStackInSlot(0).grow(32);
+        helper.assertTrue(handler.findNonEmptySlot(0) == 0, "Stack regrown in place should be found as occupied");
+        helper.assertFalse(handler.isFull(), "Handler with a partial stack should not be full");
+        helper.succeed();
+    }
+
+    /** A destination that takes less than its simulation promised, from a source that won't take items back, must not lose items. */
+    @GameTest
+    public static void move_keeps_refused_items(GameTestHelper helper) {
+        var source = new ItemStackHandler(1) {
+            @Override
+            public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+                return stack;
+            }
+        };
+        source.setStackInSlot(0, new ItemStack(Items.STONE, 64));
+        var target = new ItemStackHandler(1) {
+            @Override
+            public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+                if (simulate || stack.getCount() <= 32)
+                    return super.insertItem(slot, stack, simulate);
+                var rest = stack.copyWithCount(stack.getCount() - 32);
+                super.insertItem(slot, stack.copyWithCount(32), false);
+                return rest;
+            }
+        };
+
+        var overflow = new ArrayList<ItemStack>();
+        int moved = ItemHandlerHelper.moveItems(source, target, 64, overflow::add);
+        int left = overflow.stream().mapToInt(ItemStack::getCount).sum();
+        helper.assertTrue(moved == 32 && target.getStackInSlot(0).getCount() == 32, () -> "Moved " + moved + " items instead of 32");
+        helper.assertTrue(left == 32, () -> "Expected the other 32 items to overflow, got " + left);
+        helper.succeed();
+    }
+
+    private static int scan(IItemHandler handler, int start, boolean nonEmpty) {
+        for (int slot = start; slot < handler.getSlots(); slot++) {
+            if (handler.getStackInSlot(slot).isEmpty() != nonEmpty)
+                return slot;
+        }
+        return -1;
+    }
+}
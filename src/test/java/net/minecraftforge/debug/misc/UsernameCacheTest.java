@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.misc;
+
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraftforge.common.UsernameCache;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.test.BaseTestMod;
+
+@Mod(UsernameCacheTest.MODID)
+@GameTestNamespace("forge")
+public class UsernameCacheTest extends BaseTestMod {
+    public static final String MODID = "username_cache";
+    private static final UUID FIRST = new UUID(1, 1);
+    private static final UUID SECOND = new UUID(2, 2);
+    private static final UUID THIRD = new UUID(3, 3);
+
+    public UsernameCacheTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+    }
+
+    /** Writes a snapshot and a journal that was cut off in the middle of an entry, and reads them back the way the cache loads them. */
+    @GameTest
+    public static void snapshot_and_journal_round_trip(GameTestHelper helper) {
+        try {
+            roundTrip(helper);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void roundTrip(GameTestHelper helper) throws IOException {
+        var dir = Files.createTempDirectory("usernamecache");
+        var snapshot = dir.resolve("usernamecache.bin");
+        var journal = dir.resolve("usernamecache.journal");
+        try {
+            UsernameCache.writeSnapshot(snapshot, Map.of(FIRST, "First", SECOND, "Second"));
+
+            var changes = new LinkedHashMap<UUID, String>();
+            changes.put(FIRST, "Renamed");
+            changes.put(SECOND, null);
+            UsernameCache.appendJournal(journal, changes);
+            UsernameCache.appendJournal(journal, Map.of(THIRD, "Third"));
+
+            // A set entry that was only half written when the game crashed
+            try (var out = new DataOutputStream(Files.newOutputStream(journal, StandardOpenOption.APPEND))) {
+                out.writeByte(1);
+                out.writeLong(SECOND.getMostSignificantBits());
+                out.writeLong(SECOND.getLeastSignificantBits());
+                out.writeShort(10);
+                out.writeBytes("Sec");
+            }
+
+            var read = new HashMap<UUID, String>();
+            UsernameCache.readSnapshot(snapshot, read);
+            helper.assertTrue(read.equals(Map.of(FIRST, "First", SECOND, "Second")), () -> "Wrong snapshot: " + read);
+
+            boolean partial = false;
+            try {
+                UsernameCache.readJournal(journal, read);
+            } catch (EOFException e) {
+                partial = true;
+            }
+            helper.assertTrue(partial, "Partial trailing entry was not reported");
+            helper.assertTrue(read.equals(Map.of(FIRST, "Renamed", THIRD, "Third")), () -> "Wrong entries after the journal: " + read);
+
+            // Compacting writes what was read, and loads back the same
+            UsernameCache.writeSnapshot(snapshot, read);
+            var compacted = new HashMap<UUID, String>();
+            UsernameCache.readSnapshot(snapshot, compacted);
+            helper.assertTrue(compacted.equals(read), () -> "Wrong compacted snapshot: " + compacted);
+
+            // Reading and writing other files must never touch the live cache
+            helper.assertFalse(UsernameCache.containsUUID(FIRST) || UsernameCache.containsUUID(THIRD), "Test entries leaked into the live cache");
+            helper.assertTrue(UsernameCache.getLastKnownUsername(FIRST) == null, "Test entries leaked into the live cache");
+            helper.succeed();
+        } finally {
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(journal);
+            Files.deleteIfExists(dir);
+        }
+    }
+}
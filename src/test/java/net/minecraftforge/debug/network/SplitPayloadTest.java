@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.network;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.slf4j.Logger;
+
+import com.mojang.logging.LogUtils;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.Connection;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.CommonListenerCookie;
+import net.minecraftforge.common.ForgeHooks;
+import net.minecraftforge.event.network.CustomPayloadEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTest;
+import net.minecraftforge.gametest.GameTestNamespace;
+import net.minecraftforge.network.ChannelBuilder;
+import net.minecraftforge.network.EventNetworkChannel;
+import net.minecraftforge.network.ForgePayload;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.PayloadSplitter;
+import net.minecraftforge.test.BaseTestMod;
+
+/**
+ * Streams payloads from a mock player's in-memory connection into a second connection, the same way a remote would receive them.
+ */
+@Mod(SplitPayloadTest.MODID)
+@GameTestNamespace("forge")
+public class SplitPayloadTest extends BaseTestMod {
+    static final String MODID = "split_payload";
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int CLIENTBOUND_MAX = 1048576;
+
+    private static byte[] received;
+
+    public SplitPayloadTest(FMLJavaModLoadingContext context) {
+        super(context, false, false);
+        FMLCommonSetupEvent.getBus(modBus).addListener(this::commonSetup);
+    }
+
+    public void commonSetup(final FMLCommonSetupEvent event) {
+        TestChannel.register();
+    }
+
+    @GameTest
+    public static void streams_large_payload(GameTestHelper helper) {
+        var player = mockPlayer(helper);
+        try {
+            var data = new byte[3 * CLIENTBOUND_MAX + 17];
+            new Random(42).nextBytes(data);
+            var receiver = receiver();
+            received = null;
+
+            long start = System.nanoTime();
+            var future = PayloadSplitter.send(player.connection.getConnection(), NetworkDirection.PLAY_TO_CLIENT, TestChannel.NAME, Unpooled.wrappedBuffer(data));
+            var channel = (EmbeddedChannel)player.connection.getConnection().channel();
+            helper.assertTrue(channel.outboundMessages().isEmpty(), "Parts should only be written from the event loop");
+
+            int count = 0;
+            for (int x = 0; x < 100 && !future.isDone(); x++) {
+                channel.runPendingTasks();
+                count += deliver(helper, channel, receiver);
+            }
+            int parts = count;
+            long nanos = System.nanoTime() - start;
+
+            helper.assertTrue(future.isDone() && !future.isCompletedExceptionally(), "Transfer did not complete");
+            helper.assertTrue(parts == 5, () -> "Expected a header and four parts, but got " + parts);
+            helper.assertTrue(received != null && Arrays.equals(data, received), "Reassembled payload does not match");
+            LOGGER.info("Streamed {} bytes in {} parts at {} MB/s", data.length, parts, String.format("%.1f", data.length * 1000.0 / nanos));
+            helper.succeed();
+        } finally {
+            helper.getLevel().getServer().getPlayerList().remove(player);
+        }
+    }
+
+    @GameTest
+    public static void sends_small_payload_whole(GameTestHelper helper) {
+        var player = mockPlayer(helper);
+        try {
+            var channel = (EmbeddedChannel)player.connection.getConnection().channel();
+            var future = PayloadSplitter.send(player.connection.getConnection(), NetworkDirection.PLAY_TO_CLIENT, TestChannel.NAME, Unpooled.wrappedBuffer(new byte[1024]));
+            channel.runPendingTasks();
+
+            int count = 0;
+            Object msg;
+            while ((msg = channel.readOutbound()) != null) {
+                if (msg instanceof ClientboundCustomPayloadPacket pkt && pkt.payload().type().id().equals(TestChannel.NAME))
+                    count++;
+            }
+            int packets = count;
+            helper.assertTrue(packets == 1, () -> "Expected a single packet, but got " + packets);
+            helper.assertTrue(future.isDone(), "Single packet was not written");
+            helper.succeed();
+        } finally {
+            helper.getLevel().getServer().getPlayerList().remove(player);
+        }
+    }
+
+    @GameTest
+    public static void rejects_oversized_payload(GameTestHelper helper) {
+        var receiver = receiver();
+        var header = new FriendlyByteBuf(Unpooled.buffer());
+        header.writeVarInt(0);
+        header.writeByte(1);
+        header.writeResourceLocation(TestChannel.NAME);
+        header.writeVarInt(Integer.MAX_VALUE);
+
+        ForgeHooks.onCustomPayload(ForgePayload.create(PayloadSplitter.NAME, header), receiver);
+        helper.assertFalse(receiver.isConnected(), "Remote that claimed a huge payload should be disconnected");
+        helper.succeed();
+    }
+
+    /**
+     * Encodes every outbound payload on the given channel, and hands it to the receiver like the network would.
+     * @return the number of payloads sent on the split channel
+     */
+    private static int deliver(GameTestHelper helper, EmbeddedChannel channel, Connection receiver) {
+        int count = 0;
+        Object msg;
+        while ((msg = channel.readOutbound()) != null) {
+            if (msg instanceof ClientboundCustomPayloadPacket pkt && pkt.payload() instanceof ForgePayload pay && pay.id().equals(PayloadSplitter.NAME)) {
+                var buf = new FriendlyByteBuf(Unpooled.buffer());
+                pay.encoder().accept(buf);
+                helper.assertTrue(buf.readableBytes() <= CLIENTBOUND_MAX, () -> "Payload of " + buf.readableBytes() + " bytes is too large");
+                ForgeHooks.onCustomPayload(ForgePayload.create(pay.id(), buf), receiver);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Server side connection so the received payloads are handled on the thread running the test. */
+    private static Connection receiver() {
+        var ret = new Connection(PacketFlow.SERVERBOUND);
+        new EmbeddedChannel(ret);
+        return ret;
+    }
+
+    private static ServerPlayer mockPlayer(GameTestHelper helper) {
+        ServerPlayer ret = helper.makeMockServerPlayer();
+        CommonListenerCookie cookie = new CommonListenerCookie(null, 0, null, false);
+
+        helper.getLevel().getServer().getPlayerList().placeNewPlayer(ret.connection.getConnection(), ret, cookie);
+        // Ignore all the packets sent during connection
+        var channel = (EmbeddedChannel)ret.connection.getConnection().channel();
+        while (channel.readOutbound() != null);
+        return ret;
+    }
+
+    private static class TestChannel {
+        private static final ResourceLocation NAME = rl(MODID, "large");
+
+        private static final EventNetworkChannel CHANNEL = ChannelBuilder
+            .named(NAME)
+            .optional()
+            .eventNetworkChannel()
+            .addListener(TestChannel::onPayload);
+
+        private static void onPayload(CustomPayloadEvent event) {
+            var data = event.getPayload();
+            // The buffer is released once we return, so copy it
+            received = new byte[data.readableBytes()];
+            data.readBytes(received);
+            event.getSource().setPacketHandled(true);
+        }
+
+        public static void register() {
+            LOGGER.debug("Registering network {} v{}", CHANNEL.getName(), CHANNEL.getProtocolVersion());
+        }
+    }
+}